@@ -7,6 +7,9 @@ import hudson.util.ListBoxModel;
 import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnection;
 import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnectionMatcher;
 import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnectionsProperty;
+import io.jenkins.plugins.entigo.pipeline.argocd.process.ProcessExecutor;
+import io.jenkins.plugins.entigo.pipeline.util.FormValidationUtil;
+import io.jenkins.plugins.entigo.pipeline.util.ProcessThreadFactory;
 import jenkins.model.GlobalConfiguration;
 import net.sf.json.JSONObject;
 import org.apache.commons.lang.StringUtils;
@@ -27,15 +30,28 @@ public class PluginConfiguration extends GlobalConfiguration {
         return ExtensionList.lookupSingleton(PluginConfiguration.class);
     }
 
+    private static final int DEFAULT_PROCESS_THREADS = 50;
+    private static final int DEFAULT_PROCESS_QUEUE_SIZE = 50;
+    private static final int DEFAULT_CLEANUP_DELETES_PER_MINUTE = 10;
+    private static final int DEFAULT_VIRTUAL_PROCESS_LIMIT = 10000;
+    private static final int DEFAULT_MANIFEST_SIZE_LIMIT = 50;
+
     private List<ArgoCDConnection> argoCDConnections = new ArrayList<>();
     private ArgoCDConnectionsProperty argoCDConnectionsProperty;
     private String defaultArgoCDConnection;
+    private int processThreads = DEFAULT_PROCESS_THREADS;
+    private int processQueueSize = DEFAULT_PROCESS_QUEUE_SIZE;
+    private boolean virtualThreads = false;
+    private int virtualProcessLimit = DEFAULT_VIRTUAL_PROCESS_LIMIT;
+    private int cleanupDeletesPerMinute = DEFAULT_CLEANUP_DELETES_PER_MINUTE;
+    private int manifestSizeLimit = DEFAULT_MANIFEST_SIZE_LIMIT;
     private final transient Map<String, ArgoCDConnection> namedArgoCDConnections = new HashMap<>();
 
     public PluginConfiguration() {
         // When Jenkins is restarted, load any saved configuration from disk.
         load();
         updateNamedArgoCDConnections();
+        ProcessThreadFactory.setVirtualThreads(virtualThreads);
     }
 
     public List<ArgoCDConnection> getArgoCDConnections() {
@@ -71,6 +87,81 @@ public class PluginConfiguration extends GlobalConfiguration {
         save();
     }
 
+    public int getProcessThreads() {
+        // Configurations saved before this setting was added load with 0
+        return processThreads > 0 ? processThreads : DEFAULT_PROCESS_THREADS;
+    }
+
+    @DataBoundSetter
+    public void setProcessThreads(int processThreads) {
+        this.processThreads = processThreads;
+        ProcessExecutor.get().configure(getProcessThreads(), getProcessQueueSize());
+        save();
+    }
+
+    public int getProcessQueueSize() {
+        return processQueueSize > 0 ? processQueueSize : DEFAULT_PROCESS_QUEUE_SIZE;
+    }
+
+    @DataBoundSetter
+    public void setProcessQueueSize(int processQueueSize) {
+        this.processQueueSize = processQueueSize;
+        ProcessExecutor.get().configure(getProcessThreads(), getProcessQueueSize());
+        save();
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    @DataBoundSetter
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        ProcessThreadFactory.setVirtualThreads(virtualThreads);
+        save();
+    }
+
+    /**
+     * @return number of processes that can run at the same time with virtual threads, process threads and queue
+     * size only apply to platform threads
+     */
+    public int getVirtualProcessLimit() {
+        return virtualProcessLimit > 0 ? virtualProcessLimit : DEFAULT_VIRTUAL_PROCESS_LIMIT;
+    }
+
+    @DataBoundSetter
+    public void setVirtualProcessLimit(int virtualProcessLimit) {
+        this.virtualProcessLimit = virtualProcessLimit;
+        save();
+    }
+
+    public int getCleanupDeletesPerMinute() {
+        return cleanupDeletesPerMinute > 0 ? cleanupDeletesPerMinute : DEFAULT_CLEANUP_DELETES_PER_MINUTE;
+    }
+
+    @DataBoundSetter
+    public void setCleanupDeletesPerMinute(int cleanupDeletesPerMinute) {
+        this.cleanupDeletesPerMinute = cleanupDeletesPerMinute;
+        save();
+    }
+
+    /**
+     * @return total size limit in megabytes of the rendered manifest files of one sync request
+     */
+    public int getManifestSizeLimit() {
+        return manifestSizeLimit > 0 ? manifestSizeLimit : DEFAULT_MANIFEST_SIZE_LIMIT;
+    }
+
+    @DataBoundSetter
+    public void setManifestSizeLimit(int manifestSizeLimit) {
+        this.manifestSizeLimit = manifestSizeLimit;
+        save();
+    }
+
+    public String getProcessExecutorStatus() {
+        return ProcessExecutor.get().getStatus();
+    }
+
     public Map<String, ArgoCDConnection> getNamedArgoCDConnections() {
         return namedArgoCDConnections;
     }
@@ -111,6 +202,34 @@ public class PluginConfiguration extends GlobalConfiguration {
         }
     }
 
+    public FormValidation doCheckProcessThreads(@QueryParameter String value) {
+        return FormValidationUtil.doCheckNumber(value, 1L, 1000L);
+    }
+
+    public FormValidation doCheckVirtualProcessLimit(@QueryParameter String value) {
+        // Blocked virtual threads don't hold a platform thread, so a lot more of them can wait at the same time
+        return FormValidationUtil.doCheckNumber(value, 1L, 100000L);
+    }
+
+    public FormValidation doCheckProcessQueueSize(@QueryParameter String value) {
+        return FormValidationUtil.doCheckNumber(value, 1L, 10000L);
+    }
+
+    public FormValidation doCheckCleanupDeletesPerMinute(@QueryParameter String value) {
+        return FormValidationUtil.doCheckNumber(value, 1L, 600L);
+    }
+
+    public FormValidation doCheckManifestSizeLimit(@QueryParameter String value) {
+        return FormValidationUtil.doCheckNumber(value, 1L, 1024L);
+    }
+
+    public FormValidation doCheckVirtualThreads(@QueryParameter boolean value) {
+        if (value && !ProcessThreadFactory.isVirtualThreadsSupported()) {
+            return FormValidation.warning("Virtual threads require Java 21 or newer, platform threads are used");
+        }
+        return FormValidation.ok();
+    }
+
     public ListBoxModel doFillDefaultArgoCDConnectionItems() {
         ListBoxModel connections = new ListBoxModel();
         connections.add("");
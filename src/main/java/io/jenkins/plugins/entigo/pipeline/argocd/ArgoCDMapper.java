@@ -4,6 +4,8 @@ import hudson.Extension;
 import hudson.ExtensionList;
 import io.jenkins.plugins.entigo.pipeline.argocd.model.*;
 
+import java.util.Map;
+
 /**
  * Author: Märt Erlenheim
  * Date: 2020-10-08
@@ -17,16 +19,29 @@ public class ArgoCDMapper {
 
     public Application createApplication(String applicationName, String projectName, String repoUrl, String path,
                                          String targetRevision, String clusterUrl, String clusterNamespace) {
+        return createApplication(applicationName, projectName, repoUrl, path, targetRevision, clusterUrl,
+                clusterNamespace, null);
+    }
+
+    /**
+     * @param labels optional, application labels, e.g. for finding the applications with a label selector
+     */
+    public Application createApplication(String applicationName, String projectName, String repoUrl, String path,
+                                         String targetRevision, String clusterUrl, String clusterNamespace,
+                                         Map<String, String> labels) {
         Application application = new Application();
-        application.setMetadata(createApplicationMetaData(applicationName));
+        application.setMetadata(createApplicationMetaData(applicationName, labels));
         application.setSpec(createApplicationSpec(projectName, repoUrl, path, targetRevision, clusterUrl,
                 clusterNamespace));
         return application;
     }
 
-    private MetaData createApplicationMetaData(String applicationName) {
+    private MetaData createApplicationMetaData(String applicationName, Map<String, String> labels) {
         MetaData metaData = new MetaData();
         metaData.setName(applicationName);
+        if (labels != null && !labels.isEmpty()) {
+            metaData.setLabels(labels);
+        }
         return metaData;
     }
 
@@ -0,0 +1,185 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.cleanup;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.PluginConfiguration;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ApplicationListStream;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ArgoCDClient;
+import io.jenkins.plugins.entigo.pipeline.argocd.config.ApplicationCleanup;
+import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnection;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.Application;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.ApplicationStatus;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.MetaData;
+import io.jenkins.plugins.entigo.pipeline.rest.NotFoundException;
+import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the stale applications of the connections that have cleanup configured. Deletes are cascading and spread
+ * out to the configured rate over all connections, so ArgoCD and the clusters aren't flooded with deletions after a
+ * quiet period. Connections often point to the same ArgoCD, so the rate isn't per connection.
+ */
+@Extension
+public class ApplicationCleaner extends AsyncPeriodicWork {
+
+    private static final int MAX_RECORDS = 200;
+    private static final List<String> LIST_FIELDS = Arrays.asList("items.metadata.name",
+            "items.metadata.creationTimestamp", "items.metadata.deletionTimestamp",
+            "items.status.operationState.finishedAt");
+
+    private final Deque<CleanupRecord> records = new ArrayDeque<>();
+    private volatile Date lastRun;
+
+    public ApplicationCleaner() {
+        super("ArgoCD application cleanup");
+    }
+
+    public static ApplicationCleaner get() {
+        return ExtensionList.lookupSingleton(ApplicationCleaner.class);
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return TimeUnit.MINUTES.toMillis(15);
+    }
+
+    @Override
+    protected void execute(TaskListener listener) throws InterruptedException {
+        lastRun = new Date();
+        DeleteRateLimiter rateLimiter = new DeleteRateLimiter(PluginConfiguration.get().getCleanupDeletesPerMinute());
+        for (ArgoCDConnection connection : PluginConfiguration.get().getArgoCDConnections()) {
+            ApplicationCleanup cleanup = connection.getCleanup();
+            if (cleanup == null) {
+                continue;
+            }
+            if (!cleanup.isConfigured()) {
+                ListenerUtil.println(listener, String.format("Skipping %s, cleanup needs a label selector or a " +
+                        "name pattern", connection.getName()));
+                continue;
+            }
+            try {
+                cleanConnection(connection, cleanup, rateLimiter, listener);
+            } catch (AbortException | RuntimeException exception) {
+                ListenerUtil.error(listener, String.format("Cleanup of %s failed: %s", connection.getName(),
+                        exception.getMessage()));
+            }
+        }
+    }
+
+    private void cleanConnection(ArgoCDConnection connection, ApplicationCleanup cleanup,
+                                 DeleteRateLimiter rateLimiter, TaskListener listener)
+            throws AbortException, InterruptedException {
+        ArgoCDClient client = connection.getClient();
+        // Deleting while listing would keep the list response open for the whole cleanup
+        List<String> staleNames = new ArrayList<>();
+        LocalDateTime staleBefore = LocalDateTime.now(ZoneOffset.UTC).minusHours(cleanup.getMaxAge());
+        try (ApplicationListStream stream = client.streamApplications(null, cleanup.getSelector(), LIST_FIELDS)) {
+            while (stream.hasNext()) {
+                Application application = stream.next();
+                String name = application.getMetadata().getName();
+                if (cleanup.matchesName(name) && isStale(application, staleBefore)) {
+                    staleNames.add(name);
+                }
+            }
+        }
+        ListenerUtil.println(listener, String.format("%d stale applications on %s", staleNames.size(),
+                connection.getName()));
+        for (String name : staleNames) {
+            if (!cleanup.isDryRun()) {
+                rateLimiter.acquire();
+            }
+            deleteApplication(client, connection.getName(), name, cleanup.isDryRun(), listener);
+        }
+    }
+
+    // Last activity is the latest of the creation and the last finished operation
+    static boolean isStale(Application application, LocalDateTime staleBefore) {
+        MetaData metadata = application.getMetadata();
+        if (metadata.getDeletionTimestamp() != null || metadata.getCreationTimestamp() == null) {
+            return false;
+        }
+        LocalDateTime lastActivity = metadata.getCreationTimestamp();
+        ApplicationStatus status = application.getStatus();
+        if (status != null && status.getOperationState() != null &&
+                status.getOperationState().getFinishedAt() != null &&
+                status.getOperationState().getFinishedAt().isAfter(lastActivity)) {
+            lastActivity = status.getOperationState().getFinishedAt();
+        }
+        return lastActivity.isBefore(staleBefore);
+    }
+
+    private void deleteApplication(ArgoCDClient client, String connectionName, String name, boolean dryRun,
+                                   TaskListener listener) {
+        if (dryRun) {
+            addRecord(new CleanupRecord(connectionName, name, CleanupAction.WOULD_DELETE, null));
+            return;
+        }
+        try {
+            client.deleteApplication(name, true);
+            ListenerUtil.println(listener, String.format("Deleted %s from %s", name, connectionName));
+            addRecord(new CleanupRecord(connectionName, name, CleanupAction.DELETED, null));
+        } catch (NotFoundException exception) {
+            // Deleted by someone else since listing
+        } catch (RuntimeException exception) {
+            ListenerUtil.error(listener, String.format("Failed to delete %s from %s: %s", name, connectionName,
+                    exception.getMessage()));
+            addRecord(new CleanupRecord(connectionName, name, CleanupAction.FAILED, exception.getMessage()));
+        }
+    }
+
+    private void addRecord(CleanupRecord record) {
+        synchronized (records) {
+            records.addFirst(record);
+            while (records.size() > MAX_RECORDS) {
+                records.removeLast();
+            }
+        }
+    }
+
+    /**
+     * @return latest actions first
+     */
+    public List<CleanupRecord> getRecords() {
+        synchronized (records) {
+            return new ArrayList<>(records);
+        }
+    }
+
+    public Date getLastRun() {
+        return lastRun;
+    }
+
+    /**
+     * Spaces out the deletes of one cleanup run, the first delete is not delayed.
+     */
+    static class DeleteRateLimiter {
+
+        private final long interval;
+        private Long nextDelete = null;
+
+        DeleteRateLimiter(int deletesPerMinute) {
+            this.interval = TimeUnit.MINUTES.toNanos(1) / deletesPerMinute;
+        }
+
+        void acquire() throws InterruptedException {
+            long now = System.nanoTime();
+            if (nextDelete != null && nextDelete - now > 0) {
+                TimeUnit.NANOSECONDS.sleep(nextDelete - now);
+                now = nextDelete;
+            }
+            nextDelete = now + interval;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.cleanup;
+
+import hudson.Extension;
+import hudson.model.ManagementLink;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import javax.annotation.Nonnull;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Shows what the application cleaner has deleted.
+ */
+@Extension
+public class ApplicationCleanerLink extends ManagementLink {
+
+    @Override
+    public String getIconFileName() {
+        return "edit-delete.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "ArgoCD Application Cleanup";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Stale ArgoCD applications deleted by the periodic cleanup";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "argocd-cleanup";
+    }
+
+    @Nonnull
+    @Override
+    public Category getCategory() {
+        return Category.TOOLS;
+    }
+
+    public List<CleanupRecord> getRecords() {
+        return ApplicationCleaner.get().getRecords();
+    }
+
+    public Date getLastRun() {
+        return ApplicationCleaner.get().getLastRun();
+    }
+
+    @RequirePOST
+    public HttpResponse doRun() {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        ApplicationCleaner.get().doRun();
+        return HttpResponses.redirectToDot();
+    }
+}
@@ -0,0 +1,17 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.cleanup;
+
+public enum CleanupAction {
+    DELETED("Deleted"),
+    WOULD_DELETE("Would delete, dry run"),
+    FAILED("Failed");
+
+    private final String displayName;
+
+    CleanupAction(final String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
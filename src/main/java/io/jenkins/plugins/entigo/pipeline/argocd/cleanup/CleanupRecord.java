@@ -0,0 +1,39 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.cleanup;
+
+import java.util.Date;
+
+public class CleanupRecord {
+
+    private final Date time = new Date();
+    private final String connectionName;
+    private final String applicationName;
+    private final CleanupAction action;
+    private final String message;
+
+    public CleanupRecord(String connectionName, String applicationName, CleanupAction action, String message) {
+        this.connectionName = connectionName;
+        this.applicationName = applicationName;
+        this.action = action;
+        this.message = message;
+    }
+
+    public Date getTime() {
+        return time;
+    }
+
+    public String getConnectionName() {
+        return connectionName;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public CleanupAction getAction() {
+        return action;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
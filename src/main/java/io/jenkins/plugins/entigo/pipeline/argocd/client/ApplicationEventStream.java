@@ -0,0 +1,93 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.client;
+
+import io.jenkins.plugins.entigo.pipeline.argocd.model.ApplicationWatchEvent;
+import io.jenkins.plugins.entigo.pipeline.argocd.process.ProcessExecutor;
+import io.jenkins.plugins.entigo.pipeline.rest.RetryableException;
+import io.jenkins.plugins.entigo.pipeline.util.ProcessingExceptionUtil;
+import org.glassfish.jersey.client.ChunkedInput;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.Response;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Reads the application watch stream on a separate reader thread of the process executor and hands the events over
+ * through a queue. Closing a blocked chunked InputStream waits until the blocking read returns, so the consumer never
+ * touches the stream directly and can stop waiting instantly. The reader releases the connection after its current
+ * read returns.
+ */
+public class ApplicationEventStream {
+
+    private final Response response;
+    private final BlockingQueue<Optional<ApplicationWatchEvent>> events = new LinkedBlockingQueue<>();
+    private volatile boolean closed = false;
+    private volatile ProcessingException failure = null;
+
+    /**
+     * @throws RetryableException when all reader threads are busy, the response is closed
+     */
+    public ApplicationEventStream(Response response) {
+        this.response = response;
+        try {
+            ProcessExecutor.get().executeReader(this::readEvents);
+        } catch (RejectedExecutionException exception) {
+            response.close();
+            throw new RetryableException("Couldn't start reading the watch stream: " + exception.getMessage(),
+                    exception);
+        }
+    }
+
+    private void readEvents() {
+        ChunkedInput<ApplicationWatchEvent> input = null;
+        try {
+            input = response.readEntity(new GenericType<ChunkedInput<ApplicationWatchEvent>>() {});
+            input.setParser(ChunkedInput.createParser("\n"));
+            ApplicationWatchEvent event;
+            while (!closed && (event = input.read()) != null) {
+                events.add(Optional.of(event));
+            }
+        } catch (ProcessingException exception) {
+            if (!closed) {
+                failure = exception;
+            }
+        } finally {
+            if (input != null) {
+                input.close();
+            }
+            response.close();
+            events.add(Optional.empty());
+        }
+    }
+
+    /**
+     * Blocks until the next event is received.
+     * @return next event or null when either client or server closed the connection
+     * @throws InterruptedException when the waiting thread was interrupted
+     */
+    public ApplicationWatchEvent read() throws InterruptedException {
+        if (closed) {
+            return null;
+        }
+        Optional<ApplicationWatchEvent> event = events.take();
+        if (event.isPresent()) {
+            return event.get();
+        }
+        // Keeps the end marker for any following reads
+        events.add(event);
+        if (failure != null) {
+            throw new RetryableException(ProcessingExceptionUtil.getExceptionMessage(failure), failure);
+        }
+        return null;
+    }
+
+    public void close() {
+        if (!closed) {
+            closed = true;
+            events.add(Optional.empty());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.Application;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.MetaData;
+import io.jenkins.plugins.entigo.pipeline.rest.JacksonConfiguration;
+import io.jenkins.plugins.entigo.pipeline.rest.RetryableException;
+
+import javax.ws.rs.core.Response;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Parses the application list response incrementally, only the current application is kept in memory. Items are
+ * read on the calling thread, the read timeout of the request applies to every read.
+ */
+public class ApplicationListStream implements Iterator<Application>, Closeable {
+
+    private static final ObjectMapper MAPPER = new JacksonConfiguration().getContext(Application.class);
+
+    private final Response response;
+    private final JsonParser parser;
+    private MetaData metadata;
+    private boolean hasItems;
+    private Application nextApplication = null;
+    private boolean closed = false;
+
+    public ApplicationListStream(Response response) {
+        this.response = response;
+        try {
+            this.parser = MAPPER.getFactory().createParser(response.readEntity(InputStream.class));
+            this.hasItems = moveToItems();
+        } catch (IOException exception) {
+            response.close();
+            throw new RetryableException("Failed to read the application list: " + exception.getMessage(),
+                    exception);
+        }
+    }
+
+    // Metadata comes before the items in ArgoCD responses, fields after the items are skipped
+    private boolean moveToItems() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected an object, got " + parser.currentToken());
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                return true;
+            } else if ("metadata".equals(field) && value == JsonToken.START_OBJECT) {
+                metadata = MAPPER.readValue(parser, MetaData.class);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return list metadata when it was sent before the items, null otherwise
+     */
+    public MetaData getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextApplication == null && hasItems && !closed) {
+            nextApplication = readApplication();
+        }
+        return nextApplication != null;
+    }
+
+    @Override
+    public Application next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Application application = nextApplication;
+        nextApplication = null;
+        return application;
+    }
+
+    private Application readApplication() {
+        try {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                return MAPPER.readValue(parser, Application.class);
+            }
+            hasItems = false;
+            close();
+            return null;
+        } catch (IOException exception) {
+            close();
+            throw new RetryableException("Failed to read the application list: " + exception.getMessage(),
+                    exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                parser.close();
+            } catch (IOException exception) {
+                // Connection is closed with the response
+            }
+            response.close();
+        }
+    }
+}
@@ -4,7 +4,8 @@ import io.jenkins.plugins.entigo.pipeline.argocd.model.Application;
 import io.jenkins.plugins.entigo.pipeline.argocd.model.ApplicationSyncRequest;
 import io.jenkins.plugins.entigo.pipeline.argocd.model.UserInfo;
 
-import javax.ws.rs.core.Response;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Author: Märt Erlenheim
@@ -18,9 +19,39 @@ public interface ArgoCDClient {
 
     Application getApplication(String applicationName, String projectName);
 
-    Response watchApplication(String applicationName, Integer readTimeout);
+    /**
+     * @param upsert updates the existing application, otherwise creating fails when the application exists with a
+     *               different spec
+     */
+    Application createApplication(Application application, boolean upsert);
+
+    /**
+     * Lists applications, which are parsed one at a time while iterating. ArgoCD doesn't paginate the list, so large
+     * lists are only kept out of memory, not split into requests.
+     * @param projectName optional, only lists applications of this project
+     * @param selector optional, Kubernetes label selector, e.g. team=payments,env!=prod
+     * @param fields optional, only these json paths are included in the response, e.g. items.metadata.name
+     * @return stream that has to be closed, also when it wasn't read to the end
+     */
+    ApplicationListStream streamApplications(String projectName, String selector, List<String> fields);
+
+    /**
+     * @param applicationName optional, streams all applications without it
+     * @param projectNames optional, only streams applications of these projects
+     * @param resourceVersion optional, skips application versions older than this. Without an application name
+     *                        ArgoCD only replays the existing applications as ADDED events when it's not given.
+     * @param fields optional, only these json paths are included in the events, e.g. result.application.status
+     */
+    ApplicationEventStream watchApplication(String applicationName, Collection<String> projectNames,
+                                            String resourceVersion, List<String> fields, Integer readTimeout);
 
     void deleteApplication(String applicationName, boolean cascade);
 
+    /**
+     * @return client sharing the connections and caches of this client, which limits the connect and read timeouts
+     * of every request to the time remaining until the deadline
+     */
+    ArgoCDClient withDeadline(Deadline deadline);
+
     void close();
 }
@@ -9,7 +9,7 @@ import io.jenkins.plugins.entigo.pipeline.rest.ClientException;
  */
 public interface ArgoCDClientBuilder extends ExtensionPoint {
 
-    ArgoCDClient buildSecuredClient(String uri, String token) throws ClientException;
+    ArgoCDClient buildSecuredClient(String uri, String token, boolean compression) throws ClientException;
 
-    ArgoCDClient buildUnsecuredClient(String uri, String token) throws ClientException;
+    ArgoCDClient buildUnsecuredClient(String uri, String token, boolean compression) throws ClientException;
 }
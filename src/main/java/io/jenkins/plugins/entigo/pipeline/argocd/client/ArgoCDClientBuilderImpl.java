@@ -11,12 +11,12 @@ import io.jenkins.plugins.entigo.pipeline.rest.ClientException;
 public class ArgoCDClientBuilderImpl implements ArgoCDClientBuilder {
 
     @Override
-    public ArgoCDClient buildSecuredClient(String uri, String token) throws ClientException {
-        return new ArgoCDClientImpl(uri, token, false);
+    public ArgoCDClient buildSecuredClient(String uri, String token, boolean compression) throws ClientException {
+        return new ArgoCDClientImpl(uri, token, false, compression);
     }
 
     @Override
-    public ArgoCDClient buildUnsecuredClient(String uri, String token) throws ClientException {
-        return new ArgoCDClientImpl(uri, token, true);
+    public ArgoCDClient buildUnsecuredClient(String uri, String token, boolean compression) throws ClientException {
+        return new ArgoCDClientImpl(uri, token, true, compression);
     }
 }
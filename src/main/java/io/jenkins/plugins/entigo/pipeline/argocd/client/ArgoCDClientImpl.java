@@ -7,6 +7,10 @@ import io.jenkins.plugins.entigo.pipeline.rest.*;
 import io.jenkins.plugins.entigo.pipeline.util.ProcessingExceptionUtil;
 import org.apache.commons.lang.StringUtils;
 import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.glassfish.jersey.client.filter.EncodingFilter;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -17,13 +21,17 @@ import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import java.security.GeneralSecurityException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -36,17 +44,37 @@ public class ArgoCDClientImpl implements ArgoCDClient {
     private static final String ARGOCD_API_PATH = "api/v1/";
     private static final Long DEFAULT_CONNECT_TIMEOUT = 30000L;
     private static final Long DEFAULT_READ_TIMEOUT = 30000L;
+    private static final int APPLICATION_CACHE_SIZE = 200;
 
     private final Client restClient;
     private final WebTarget apiTarget;
+    private final EntityTagCache<Application> applicationCache;
+    private final Deadline deadline;
 
     public ArgoCDClientImpl(String argoUri, String authToken, boolean ignoreCertificateErrors) throws ClientException {
-        this.restClient = buildClient(ignoreCertificateErrors);
+        this(argoUri, authToken, ignoreCertificateErrors, false);
+    }
+
+    /**
+     * @param compression asks ArgoCD for gzip or deflate encoded responses, requires ArgoCD server gzip support
+     */
+    public ArgoCDClientImpl(String argoUri, String authToken, boolean ignoreCertificateErrors, boolean compression)
+            throws ClientException {
+        this.restClient = buildClient(ignoreCertificateErrors, compression);
         this.apiTarget = restClient.target(UriBuilder.fromUri(argoUri).path(ARGOCD_API_PATH))
                 .register(new Oauth2AuthenticationFilter(authToken));
+        this.applicationCache = new EntityTagCache<>(APPLICATION_CACHE_SIZE);
+        this.deadline = null;
     }
 
-    private Client buildClient(boolean ignoreCertificateErrors) throws ClientException {
+    private ArgoCDClientImpl(ArgoCDClientImpl client, Deadline deadline) {
+        this.restClient = client.restClient;
+        this.apiTarget = client.apiTarget;
+        this.applicationCache = client.applicationCache;
+        this.deadline = deadline;
+    }
+
+    private Client buildClient(boolean ignoreCertificateErrors, boolean compression) throws ClientException {
         ClientBuilder clientBuilder = ClientBuilder.newBuilder()
                 .connectTimeout(DEFAULT_CONNECT_TIMEOUT, TimeUnit.MILLISECONDS)
                 .readTimeout(DEFAULT_READ_TIMEOUT, TimeUnit.MILLISECONDS)
@@ -57,6 +85,13 @@ public class ArgoCDClientImpl implements ArgoCDClient {
             disableCertificateErrors(clientBuilder);
         }
 
+        if (compression) {
+            // Filter sets the Accept-Encoding header, encoders decompress the response streams while reading
+            clientBuilder.register(EncodingFilter.class)
+                    .register(GZipEncoder.class)
+                    .register(DeflateEncoder.class);
+        }
+
         return clientBuilder.build();
     }
 
@@ -72,8 +107,17 @@ public class ArgoCDClientImpl implements ArgoCDClient {
         }
     }
 
+    @Override
+    public ArgoCDClient withDeadline(Deadline deadline) {
+        return new ArgoCDClientImpl(this, deadline);
+    }
+
     @Override
     public void close() {
+        if (deadline != null) {
+            // Connections belong to the client this was created from
+            return;
+        }
         restClient.close();
     }
 
@@ -82,47 +126,147 @@ public class ArgoCDClientImpl implements ArgoCDClient {
         return getRequest("session/userinfo", UserInfo.class);
     }
 
+    /**
+     * Sends a conditional request when a previous response had an entity tag, unchanged application is then
+     * returned from the cache without transferring and parsing the body again.
+     */
     @Override
     public Application getApplication(String applicationName, String projectName) {
-        Map<String, Object> queryParams = projectName == null ? null : Collections.singletonMap("project", projectName);
+        String cacheKey = getApplicationCacheKey(applicationName, projectName);
+        EntityTagCache.Entry<Application> cached = applicationCache.get(cacheKey);
         try {
-            return getRequest("applications/{name}", Application.class,
-                    Collections.singletonMap("name", applicationName), queryParams);
+            Response response = doRequest(HttpMethod.GET, "applications/{name}", Response.class, null,
+                    Collections.singletonMap("name", applicationName), getProjectQueryParams(projectName), null,
+                    getEntityTagHeaders(cached));
+            return readApplication(response, cacheKey, cached);
         } catch (ArgoCDException exception) {
             if (exception.getCode() == 5) {
+                applicationCache.remove(cacheKey);
                 throw new NotFoundException(String.format("Application %s not found", applicationName));
+            }
+            throw exception;
+        }
+    }
+
+    private Map<String, Object> getProjectQueryParams(String projectName) {
+        return projectName == null ? null : Collections.singletonMap("project", projectName);
+    }
+
+    private Map<String, Object> getEntityTagHeaders(EntityTagCache.Entry<Application> cached) {
+        return cached == null ? null : Collections.singletonMap(HttpHeaders.IF_NONE_MATCH, cached.getEntityTag());
+    }
+
+    private Application readApplication(Response response, String cacheKey, EntityTagCache.Entry<Application> cached) {
+        try {
+            if (cached != null && response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+                return cached.getValue();
+            }
+            checkResponseStatus(response);
+            Application application = readEntity(response, Application.class);
+            if (response.getEntityTag() == null) {
+                applicationCache.remove(cacheKey);
             } else {
-                throw exception;
+                applicationCache.put(cacheKey, response.getEntityTag(), application);
             }
+            return application;
+        } finally {
+            response.close();
         }
     }
 
+    private String getApplicationCacheKey(String applicationName, String projectName) {
+        // Kubernetes resource names can't contain slashes
+        return applicationName + "/" + (projectName == null ? "" : projectName);
+    }
+
+    private void evictApplication(String applicationName) {
+        applicationCache.removeIf(key -> key.startsWith(applicationName + "/"));
+    }
+
+    @Override
+    public Application createApplication(Application application, boolean upsert) {
+        evictApplication(application.getMetadata().getName());
+        return doRequest(HttpMethod.POST, "applications", Application.class, application, Collections.emptyMap(),
+                Collections.singletonMap("upsert", upsert));
+    }
+
     @Override
     public Application syncApplication(String applicationName, ApplicationSyncRequest request) {
+        evictApplication(applicationName);
         try {
-            return postRequest("applications/{name}/sync", Application.class, request,
-                    Collections.singletonMap("name", applicationName), null);
+            return doRequest(HttpMethod.POST, "applications/{name}/sync", Application.class, request,
+                    Collections.singletonMap("name", applicationName), null, getSyncRequestProperties(request));
         } catch (ArgoCDException exception) {
             if (exception.getCode() == 9) {
+                // Another operation is already in progress
                 throw new RetryableException(exception.getMessage(), exception);
-            } else {
-                throw exception;
             }
+            throw exception;
+        }
+    }
+
+    // Manifests are serialized straight to the connection instead of buffering the whole request body
+    private Map<String, Object> getSyncRequestProperties(ApplicationSyncRequest request) {
+        if (request.getManifests() == null) {
+            return null;
         }
+        return Collections.singletonMap(ClientProperties.REQUEST_ENTITY_PROCESSING,
+                RequestEntityProcessing.CHUNKED);
     }
 
     @Override
-    public Response watchApplication(String applicationName, Integer readTimeout) {
+    public ApplicationListStream streamApplications(String projectName, String selector, List<String> fields) {
+        Response response = doRequest(HttpMethod.GET, "applications", Response.class, null, Collections.emptyMap(),
+                getListQueryParams(projectName, selector, fields));
+        // Error body must not be parsed as the list
+        checkResponseStatus(response);
+        return new ApplicationListStream(response);
+    }
+
+    private Map<String, Object> getListQueryParams(String projectName, String selector, List<String> fields) {
+        Map<String, Object> queryParams = new HashMap<>();
+        if (projectName != null) {
+            queryParams.put("projects", projectName);
+        }
+        if (selector != null) {
+            queryParams.put("selector", selector);
+        }
+        if (fields != null && !fields.isEmpty()) {
+            queryParams.put("fields", String.join(",", fields));
+        }
+        return queryParams;
+    }
+
+    @Override
+    public ApplicationEventStream watchApplication(String applicationName, Collection<String> projectNames,
+                                                   String resourceVersion, List<String> fields, Integer readTimeout) {
+        Map<String, Object> queryParams = new HashMap<>();
+        if (applicationName != null) {
+            queryParams.put("name", applicationName);
+        }
+        if (projectNames != null && !projectNames.isEmpty()) {
+            queryParams.put("projects", projectNames);
+        }
+        if (resourceVersion != null) {
+            queryParams.put("resourceVersion", resourceVersion);
+        }
+        if (fields != null && !fields.isEmpty()) {
+            queryParams.put("fields", String.join(",", fields));
+        }
         Map<String, Object> properties = new HashMap<>();
         if (readTimeout != null && readTimeout > 0) {
             properties.put(ClientProperties.READ_TIMEOUT, readTimeout);
         }
-        return doRequest(HttpMethod.GET, "stream/applications", Response.class, null, Collections.emptyMap(),
-                Collections.singletonMap("name", applicationName), properties);
+        Response response = doRequest(HttpMethod.GET, "stream/applications", Response.class, null,
+                Collections.emptyMap(), queryParams, properties);
+        // Error body must not be parsed as watch events
+        checkResponseStatus(response);
+        return new ApplicationEventStream(response);
     }
 
     @Override
     public void deleteApplication(String applicationName, boolean cascade) {
+        evictApplication(applicationName);
         doRequest(HttpMethod.DELETE, "applications/{name}", Void.class, null,
                 Collections.singletonMap("name", applicationName), Collections.singletonMap("cascade", cascade));
     }
@@ -136,11 +280,6 @@ public class ArgoCDClientImpl implements ArgoCDClient {
         return doRequest(HttpMethod.GET, path, responseType, null, uriParams, queryParams);
     }
 
-    private <T> T postRequest(String path, Class<T> responseType, Object request, Map<String, Object> uriParams,
-                              Map<String, Object> queryParams) {
-        return doRequest(HttpMethod.POST, path, responseType, request, uriParams, queryParams);
-    }
-
     private <T> T doRequest(String method, String path, Class<T> responseType, Object request,
                             Map<String, Object> uriParams, Map<String, Object> queryParams) {
         return doRequest(method, path, responseType, request, uriParams, queryParams, null);
@@ -149,24 +288,55 @@ public class ArgoCDClientImpl implements ArgoCDClient {
     private <T> T doRequest(String method, String path, Class<T> responseType, Object request,
                             Map<String, Object> uriParams, Map<String, Object> queryParams,
                             Map<String, Object> properties) {
+        return doRequest(method, path, responseType, request, uriParams, queryParams, properties, null);
+    }
+
+    private <T> T doRequest(String method, String path, Class<T> responseType, Object request,
+                            Map<String, Object> uriParams, Map<String, Object> queryParams,
+                            Map<String, Object> properties, Map<String, Object> headers) {
         try {
-            WebTarget target = apiTarget.path(path).resolveTemplates(uriParams);
-            target = setQueryParams(target, queryParams);
-            setRequestProperties(target, properties);
-            return target.request(MediaType.APPLICATION_JSON).method(method, Entity.json(request), responseType);
+            return createRequest(path, uriParams, queryParams, properties, headers)
+                    .method(method, Entity.json(request), responseType);
         } catch (WebApplicationException exception) {
             // Mostly HTTP errors like 403, 404 etc
             throw getResponseException(exception);
         } catch (ProcessingException exception) {
+            RequestBodyException bodyException = ProcessingExceptionUtil.findCause(exception,
+                    RequestBodyException.class);
+            if (bodyException != null) {
+                // Local source of the request body failed, not the connection
+                throw bodyException;
+            }
             // Mostly IO exceptions
             throw new RetryableException(ProcessingExceptionUtil.getExceptionMessage(exception), exception);
         }
     }
 
+    private Invocation.Builder createRequest(String path, Map<String, Object> uriParams,
+                                             Map<String, Object> queryParams, Map<String, Object> properties,
+                                             Map<String, Object> headers) {
+        WebTarget target = apiTarget.path(path).resolveTemplates(uriParams);
+        target = setQueryParams(target, queryParams);
+        setRequestProperties(target, properties);
+        setDeadlineTimeouts(target, properties);
+        Invocation.Builder builder = target.request(MediaType.APPLICATION_JSON);
+        if (headers != null) {
+            for (Map.Entry<String, Object> header : headers.entrySet()) {
+                builder = builder.header(header.getKey(), header.getValue());
+            }
+        }
+        return builder;
+    }
+
     private WebTarget setQueryParams(WebTarget target, Map<String, Object> queryParams) {
         if (queryParams != null) {
             for (Map.Entry<String, Object> queryParam : queryParams.entrySet()) {
-                target = target.queryParam(queryParam.getKey(), queryParam.getValue());
+                if (queryParam.getValue() instanceof Collection) {
+                    // Repeated parameter, e.g. projects=a&projects=b
+                    target = target.queryParam(queryParam.getKey(), ((Collection<?>) queryParam.getValue()).toArray());
+                } else {
+                    target = target.queryParam(queryParam.getKey(), queryParam.getValue());
+                }
             }
         }
         return target;
@@ -180,6 +350,35 @@ public class ArgoCDClientImpl implements ArgoCDClient {
         }
     }
 
+    // Request can't wait longer than the deadline allows, the read timeout of the streams is limited as well
+    private void setDeadlineTimeouts(WebTarget target, Map<String, Object> properties) {
+        if (deadline != null) {
+            Object readTimeout = properties == null ? null : properties.get(ClientProperties.READ_TIMEOUT);
+            target.property(ClientProperties.CONNECT_TIMEOUT, deadline.limitTimeout(DEFAULT_CONNECT_TIMEOUT));
+            target.property(ClientProperties.READ_TIMEOUT, deadline.limitTimeout(readTimeout instanceof Integer ?
+                    (Integer) readTimeout : DEFAULT_READ_TIMEOUT));
+        }
+    }
+
+    // Jersey doesn't check the status when the raw Response is requested
+    private void checkResponseStatus(Response response) {
+        if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+            try {
+                throw getResponseException(new WebApplicationException(response));
+            } finally {
+                response.close();
+            }
+        }
+    }
+
+    private <T> T readEntity(Response response, Class<T> entityType) {
+        try {
+            return response.readEntity(entityType);
+        } catch (ProcessingException exception) {
+            throw new RetryableException(ProcessingExceptionUtil.getExceptionMessage(exception), exception);
+        }
+    }
+
     private ResponseException getResponseException(WebApplicationException exception) {
         Response response = exception.getResponse();
         if (response != null && response.hasEntity()) {
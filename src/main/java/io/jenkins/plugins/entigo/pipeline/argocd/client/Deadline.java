@@ -0,0 +1,36 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which all requests of a step must finish. Uses the monotonic clock, so wall clock changes don't
+ * shorten or extend it.
+ */
+public class Deadline {
+
+    private final long end;
+
+    private Deadline(long end) {
+        this.end = end;
+    }
+
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    public long getRemaining(TimeUnit unit) {
+        return Math.max(0L, unit.convert(end - System.nanoTime(), TimeUnit.NANOSECONDS));
+    }
+
+    public boolean isExpired() {
+        return end - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @param timeout in milliseconds
+     * @return timeout in milliseconds, reduced to the remaining time, at least 1 as 0 disables the timeouts
+     */
+    public int limitTimeout(long timeout) {
+        return (int) Math.max(1L, Math.min(timeout, getRemaining(TimeUnit.MILLISECONDS)));
+    }
+}
@@ -0,0 +1,60 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.client;
+
+import javax.ws.rs.core.EntityTag;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the last responses with their entity tags for conditional requests, least recently used entries are evicted.
+ * Cached values are shared between callers and must not be modified.
+ */
+class EntityTagCache<T> {
+
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    EntityTagCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    synchronized Entry<T> get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, EntityTag entityTag, T value) {
+        entries.put(key, new Entry<>(entityTag, value));
+        if (entries.size() > maxSize) {
+            Iterator<String> iterator = entries.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    synchronized void removeIf(Predicate<String> keyPredicate) {
+        entries.keySet().removeIf(keyPredicate);
+    }
+
+    static class Entry<T> {
+
+        private final EntityTag entityTag;
+        private final T value;
+
+        private Entry(EntityTag entityTag, T value) {
+            this.entityTag = entityTag;
+            this.value = value;
+        }
+
+        EntityTag getEntityTag() {
+            return entityTag;
+        }
+
+        T getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.config;
+
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.entigo.pipeline.util.FormValidationUtil;
+import org.apache.commons.lang.StringUtils;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.Nonnull;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Which applications of a connection the application cleaner deletes. Applications are stale when they haven't
+ * been created or synced within the max age.
+ */
+public class ApplicationCleanup extends AbstractDescribableImpl<ApplicationCleanup> {
+
+    private final String selector;
+    private final String namePattern;
+    private int maxAge = 72;
+    private boolean dryRun = false;
+    private transient Pattern compiledPattern;
+
+    @DataBoundConstructor
+    public ApplicationCleanup(String selector, String namePattern) {
+        this.selector = StringUtils.stripToNull(selector);
+        this.namePattern = StringUtils.stripToNull(namePattern);
+    }
+
+    public String getSelector() {
+        return selector;
+    }
+
+    public String getNamePattern() {
+        return namePattern;
+    }
+
+    /**
+     * @return max age in hours
+     */
+    public int getMaxAge() {
+        return maxAge;
+    }
+
+    @DataBoundSetter
+    public void setMaxAge(int maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    @DataBoundSetter
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    // Without either, every application of the connection would be deleted
+    public boolean isConfigured() {
+        return (selector != null || namePattern != null) && maxAge > 0;
+    }
+
+    public boolean matchesName(String name) {
+        if (namePattern == null) {
+            return true;
+        }
+        if (compiledPattern == null) {
+            compiledPattern = Pattern.compile(namePattern);
+        }
+        return compiledPattern.matcher(name).matches();
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<ApplicationCleanup> {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Delete stale applications";
+        }
+
+        public FormValidation doCheckSelector(@QueryParameter String value, @QueryParameter String namePattern) {
+            if (StringUtils.isBlank(value) && StringUtils.isBlank(namePattern)) {
+                return FormValidation.error("Label selector or name pattern is required");
+            }
+            return FormValidation.ok();
+        }
+
+        public FormValidation doCheckNamePattern(@QueryParameter String value) {
+            if (StringUtils.isBlank(value)) {
+                return FormValidation.ok();
+            }
+            try {
+                Pattern.compile(value);
+                return FormValidation.ok();
+            } catch (PatternSyntaxException exception) {
+                return FormValidation.error("Invalid pattern: " + exception.getDescription());
+            }
+        }
+
+        public FormValidation doCheckMaxAge(@QueryParameter String value) {
+            return FormValidationUtil.doCheckNumber(value, 1L, 8760L);
+        }
+    }
+}
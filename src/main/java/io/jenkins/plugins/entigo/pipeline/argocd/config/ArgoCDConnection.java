@@ -16,10 +16,13 @@ import hudson.util.ListBoxModel;
 import io.jenkins.plugins.entigo.pipeline.argocd.client.ArgoCDClient;
 import io.jenkins.plugins.entigo.pipeline.argocd.client.ArgoCDClientBuilder;
 import io.jenkins.plugins.entigo.pipeline.argocd.model.UserInfo;
+import io.jenkins.plugins.entigo.pipeline.argocd.process.WaitStrategy;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.SyncStrategyType;
 import io.jenkins.plugins.entigo.pipeline.rest.ResponseException;
 import io.jenkins.plugins.entigo.pipeline.rest.ClientException;
 import io.jenkins.plugins.entigo.pipeline.util.CredentialsUtil;
 import io.jenkins.plugins.entigo.pipeline.util.FormValidationUtil;
+import io.jenkins.plugins.entigo.pipeline.util.SyncOptionsUtil;
 import jenkins.model.Jenkins;
 import org.apache.commons.lang.StringUtils;
 import org.jenkinsci.plugins.plaincredentials.StringCredentials;
@@ -48,6 +51,11 @@ public class ArgoCDConnection extends AbstractDescribableImpl<ArgoCDConnection>
     private boolean ignoreCertificateErrors = false;
     private Long appWaitTimeout = 300L;
     private boolean generateMatcher = true;
+    private boolean compression = false;
+    private WaitStrategy waitStrategy = WaitStrategy.STREAM;
+    private SyncStrategyType syncStrategy = SyncStrategyType.HOOK;
+    private String syncOptions;
+    private ApplicationCleanup cleanup;
     private transient ArgoCDClient client;
 
     @DataBoundConstructor
@@ -96,14 +104,63 @@ public class ArgoCDConnection extends AbstractDescribableImpl<ArgoCDConnection>
         this.generateMatcher = generateMatcher;
     }
 
+    public boolean isCompression() {
+        return compression;
+    }
+
+    @DataBoundSetter
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        // Configurations saved before the wait strategy was added don't have the value
+        return waitStrategy == null ? WaitStrategy.STREAM : waitStrategy;
+    }
+
+    @DataBoundSetter
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    public SyncStrategyType getSyncStrategy() {
+        return syncStrategy == null ? SyncStrategyType.HOOK : syncStrategy;
+    }
+
+    @DataBoundSetter
+    public void setSyncStrategy(SyncStrategyType syncStrategy) {
+        this.syncStrategy = syncStrategy;
+    }
+
+    public String getSyncOptions() {
+        return syncOptions;
+    }
+
+    @DataBoundSetter
+    public void setSyncOptions(String syncOptions) {
+        this.syncOptions = syncOptions;
+    }
+
+    /**
+     * @return null when the connection applications aren't cleaned up
+     */
+    public ApplicationCleanup getCleanup() {
+        return cleanup;
+    }
+
+    @DataBoundSetter
+    public void setCleanup(ApplicationCleanup cleanup) {
+        this.cleanup = cleanup;
+    }
+
     public ArgoCDClient getClient() throws AbortException {
         if (client == null) {
             try {
                 ArgoCDClientBuilder builder = ExtensionList.lookupSingleton(ArgoCDClientBuilder.class);
                 if (ignoreCertificateErrors) {
-                    client = builder.buildUnsecuredClient(uri, getApiToken());
+                    client = builder.buildUnsecuredClient(uri, getApiToken(), compression);
                 } else {
-                    client = builder.buildSecuredClient(uri, getApiToken());
+                    client = builder.buildSecuredClient(uri, getApiToken(), compression);
                 }
             } catch (ClientException exception) {
                 throw new AbortException("Failed to create an ArgoCD client, message: " + exception.getMessage());
@@ -147,6 +204,15 @@ public class ArgoCDConnection extends AbstractDescribableImpl<ArgoCDConnection>
             return FormValidationUtil.doCheckTimeout(value, 1L, 1800L, true);
         }
 
+        public FormValidation doCheckSyncOptions(@QueryParameter String value) {
+            try {
+                SyncOptionsUtil.parseSyncOptions(value);
+                return FormValidation.ok();
+            } catch (IllegalArgumentException exception) {
+                return FormValidation.error(exception.getMessage());
+            }
+        }
+
         @RequirePOST
         @Restricted(DoNotUse.class)
         public FormValidation doTestConnection(@QueryParameter String name,
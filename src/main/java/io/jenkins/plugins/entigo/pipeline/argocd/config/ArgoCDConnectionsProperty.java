@@ -6,13 +6,16 @@ import hudson.EnvVars;
 import hudson.Extension;
 import hudson.model.*;
 import io.jenkins.plugins.entigo.pipeline.PluginConfiguration;
-import org.antlr.v4.runtime.misc.NotNull;
 import org.apache.commons.lang.StringUtils;
 import org.jenkinsci.Symbol;
 import org.kohsuke.stapler.DataBoundConstructor;
 
+import javax.annotation.Nonnull;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.logging.Logger;
 
 /**
@@ -35,7 +38,7 @@ public class ArgoCDConnectionsProperty extends JobProperty<Job<?, ?>> {
         return matchers;
     }
 
-    public static ArgoCDConnection getConnection(@NotNull Run<?, ?> build, EnvVars envVars, String connectionSelector)
+    public static ArgoCDConnection getConnection(@Nonnull Run<?, ?> build, EnvVars envVars, String connectionSelector)
             throws IOException {
         String connectionName = getConnectionName(build, envVars, connectionSelector);
         ArgoCDConnection connection = PluginConfiguration.get().getArgoCDConnection(connectionName);
@@ -47,7 +50,42 @@ public class ArgoCDConnectionsProperty extends JobProperty<Job<?, ?>> {
         }
     }
 
-    public static ArgoCDConnectionsProperty getJobProperty(@NotNull Run<?, ?> build) throws IOException {
+    /**
+     * Unlike getConnection, uses every matcher whose pattern matches the selector.
+     * @return connections sorted by name, only the global default connection when there is no selector
+     */
+    public static List<ArgoCDConnection> getConnections(@Nonnull Run<?, ?> build, EnvVars envVars,
+                                                        String connectionSelector) throws IOException {
+        String selector = getSelector(envVars, connectionSelector);
+        Set<String> connectionNames = new TreeSet<>();
+        if (selector == null) {
+            String defaultConnection = PluginConfiguration.get().getDefaultArgoCDConnection();
+            if (StringUtils.isBlank(defaultConnection)) {
+                throw new AbortException("No connection selector given and global default connection isn't set");
+            }
+            connectionNames.add(defaultConnection);
+        } else {
+            for (ArgoCDConnectionMatcher matcher : getJobProperty(build).getMatchers()) {
+                if (selector.matches(matcher.getPattern())) {
+                    connectionNames.add(matcher.getConnectionName());
+                }
+            }
+            if (connectionNames.isEmpty()) {
+                throw new AbortException("Couldn't find a matching ArgoCD connection with selector: " + selector);
+            }
+        }
+        List<ArgoCDConnection> connections = new ArrayList<>();
+        for (String connectionName : connectionNames) {
+            ArgoCDConnection connection = PluginConfiguration.get().getArgoCDConnection(connectionName);
+            if (connection == null) {
+                throw new AbortException(String.format("ArgoCD connection named \"%s\" not found", connectionName));
+            }
+            connections.add(connection);
+        }
+        return connections;
+    }
+
+    public static ArgoCDConnectionsProperty getJobProperty(@Nonnull Run<?, ?> build) throws IOException {
         Job<?, ?> job = build.getParent();
         ArgoCDConnectionsProperty property = job.getProperty(ArgoCDConnectionsProperty.class);
         if (property == null) {
@@ -60,7 +98,7 @@ public class ArgoCDConnectionsProperty extends JobProperty<Job<?, ?>> {
         return property;
     }
 
-    private static String getSelector(EnvVars envVars, String connectionSelector) {
+    static String getSelector(EnvVars envVars, String connectionSelector) {
         if (StringUtils.isBlank(connectionSelector)) {
             String selector = envVars.get(SELECTOR_ENV_VAR);
             if (StringUtils.isBlank(selector)) {
@@ -0,0 +1,59 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.config;
+
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the ArgoCD connections resolved during a build, so that following steps with the same selector reuse the
+ * connection and its client without matching the selector or looking up the global configuration again. Sessions are
+ * only kept in memory and removed when the build finishes, after a restart connections are resolved again. Changes to
+ * the global connections apply to the following builds, clients and their application caches are shared through the
+ * connections.
+ */
+public class ArgoCDSession {
+
+    private static final String DEFAULT_SELECTOR = "";
+    private static final Map<String, ArgoCDSession> SESSIONS = new ConcurrentHashMap<>();
+
+    private final Map<String, ArgoCDConnection> connections = new HashMap<>();
+
+    public static ArgoCDSession get(@Nonnull Run<?, ?> build) {
+        return SESSIONS.computeIfAbsent(build.getExternalizableId(), id -> new ArgoCDSession());
+    }
+
+    /**
+     * Resolves the connection on the first use of the effective selector.
+     */
+    public synchronized ArgoCDConnection getConnection(@Nonnull Run<?, ?> build, EnvVars envVars,
+                                                       String connectionSelector, TaskListener listener)
+            throws IOException {
+        String selector = ArgoCDConnectionsProperty.getSelector(envVars, connectionSelector);
+        String selectorKey = selector == null ? DEFAULT_SELECTOR : selector;
+        ArgoCDConnection connection = connections.get(selectorKey);
+        if (connection == null) {
+            connection = ArgoCDConnectionsProperty.getConnection(build, envVars, connectionSelector);
+            connections.put(selectorKey, connection);
+            ListenerUtil.println(listener, "Using ArgoCD connection: " + connection.getName());
+        }
+        return connection;
+    }
+
+    @Extension
+    public static class SessionCleanup extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onFinalized(Run<?, ?> build) {
+            SESSIONS.remove(build.getExternalizableId());
+        }
+    }
+}
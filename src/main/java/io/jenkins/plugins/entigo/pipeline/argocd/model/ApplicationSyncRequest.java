@@ -10,12 +10,13 @@ public class ApplicationSyncRequest {
 
   private Boolean dryRun;
   private List<Info> infos;
-  private List<String> manifests;
+  private Iterable<String> manifests;
   private String name;
   private Boolean prune;
   private List<SyncResource> resources;
   private String revision;
   private SyncStrategy strategy;
+  private SyncOptions syncOptions;
 
   public Boolean getDryRun() {
     return dryRun;
@@ -33,11 +34,14 @@ public class ApplicationSyncRequest {
     this.infos = infos;
   }
 
-  public List<String> getManifests() {
+  public Iterable<String> getManifests() {
     return manifests;
   }
 
-  public void setManifests(List<String> manifests) {
+  /**
+   * @param manifests serialized as a json array, iterated again when the request is retried
+   */
+  public void setManifests(Iterable<String> manifests) {
     this.manifests = manifests;
   }
 
@@ -80,5 +84,13 @@ public class ApplicationSyncRequest {
   public void setStrategy(SyncStrategy strategy) {
     this.strategy = strategy;
   }
+
+  public SyncOptions getSyncOptions() {
+    return syncOptions;
+  }
+
+  public void setSyncOptions(SyncOptions syncOptions) {
+    this.syncOptions = syncOptions;
+  }
 }
 
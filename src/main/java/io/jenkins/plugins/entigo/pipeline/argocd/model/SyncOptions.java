@@ -0,0 +1,23 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.model;
+
+import java.util.List;
+
+public class SyncOptions {
+
+  private List<String> items;
+
+  public SyncOptions() {
+  }
+
+  public SyncOptions(List<String> items) {
+    this.items = items;
+  }
+
+  public List<String> getItems() {
+    return items;
+  }
+
+  public void setItems(List<String> items) {
+    this.items = items;
+  }
+}
@@ -9,6 +9,7 @@ public class SyncResource {
     private String group;
     private String kind;
     private String name;
+    private String namespace;
 
     public String getGroup() {
         return group;
@@ -33,4 +34,12 @@ public class SyncResource {
     public void setName(String name) {
         this.name = name;
     }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
 }
@@ -0,0 +1,172 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.process;
+
+import io.jenkins.plugins.entigo.pipeline.argocd.model.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Child applications of an app-of-apps, discovered recursively from the Application resources of the root and its
+ * children. Keeps the latest state of every child and the time it became ready.
+ */
+class ApplicationTree {
+
+    private static final String APPLICATION_GROUP = "argoproj.io";
+    private static final String APPLICATION_KIND = "Application";
+
+    private final String rootName;
+    // Latest state of the children, null until the child has been received
+    private final Map<String, Application> children = new LinkedHashMap<>();
+    private final Map<String, Set<String>> childNames = new HashMap<>();
+    private final Map<String, Long> readyTimes = new HashMap<>();
+    private final long start = System.nanoTime();
+
+    ApplicationTree(String rootName) {
+        this.rootName = rootName;
+    }
+
+    boolean contains(String name) {
+        return rootName.equals(name) || children.containsKey(name);
+    }
+
+    Set<String> getChildren() {
+        return Collections.unmodifiableSet(children.keySet());
+    }
+
+    /**
+     * @param application root or a child of the tree
+     * @return names of the newly discovered children, their state is unknown until updated
+     */
+    List<String> update(Application application) {
+        String name = application.getMetadata().getName();
+        if (!contains(name)) {
+            return Collections.emptyList();
+        }
+        if (!rootName.equals(name)) {
+            children.put(name, application);
+            updateReadyTime(name, application);
+        }
+        return updateChildNames(name, application.getStatus());
+    }
+
+    private void updateReadyTime(String name, Application application) {
+        if (!isReady(application)) {
+            readyTimes.remove(name);
+        } else if (!readyTimes.containsKey(name)) {
+            readyTimes.put(name, System.nanoTime());
+        }
+    }
+
+    private List<String> updateChildNames(String name, ApplicationStatus status) {
+        Set<String> names = new HashSet<>();
+        if (status != null && status.getResources() != null) {
+            for (ResourceStatus resource : status.getResources()) {
+                if (APPLICATION_GROUP.equals(resource.getGroup()) && APPLICATION_KIND.equals(resource.getKind()) &&
+                        !rootName.equals(resource.getName())) {
+                    names.add(resource.getName());
+                }
+            }
+        }
+        Set<String> previousNames = childNames.put(name, names);
+        if (previousNames != null) {
+            for (String previousName : previousNames) {
+                if (!names.contains(previousName)) {
+                    remove(previousName);
+                }
+            }
+        }
+        List<String> discovered = new ArrayList<>();
+        for (String childName : names) {
+            if (!children.containsKey(childName)) {
+                children.put(childName, null);
+                discovered.add(childName);
+            }
+        }
+        return discovered;
+    }
+
+    // Child was removed from its parent, its own children go with it
+    private void remove(String name) {
+        children.remove(name);
+        readyTimes.remove(name);
+        Set<String> names = childNames.remove(name);
+        if (names != null) {
+            for (String childName : names) {
+                remove(childName);
+            }
+        }
+    }
+
+    boolean isReady() {
+        for (Application child : children.values()) {
+            if (child == null || !isReady(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Child operations are usually started by the automated sync of the child, so only the current state counts
+    private static boolean isReady(Application application) {
+        ApplicationStatus status = application.getStatus();
+        if (application.getOperation() != null || status == null || status.getSync() == null ||
+                status.getHealth() == null) {
+            return false;
+        }
+        OperationState operationState = status.getOperationState();
+        if (operationState != null && OperationPhase.RUNNING.getPhase().equals(operationState.getPhase())) {
+            return false;
+        }
+        return Sync.SYNCED.getStatus().equals(status.getSync().getStatus()) &&
+                Health.HEALTHY.getStatus().equals(status.getHealth().getStatus());
+    }
+
+    String getPendingStatus() {
+        StringJoiner joiner = new StringJoiner("; ");
+        int ready = 0;
+        for (Map.Entry<String, Application> child : children.entrySet()) {
+            Application application = child.getValue();
+            if (application == null) {
+                joiner.add(child.getKey() + " - not found");
+            } else if (isReady(application)) {
+                ready++;
+            } else {
+                joiner.add(String.format("%s - %s", child.getKey(), getStatus(application)));
+            }
+        }
+        return String.format("%d/%d child applications ready, waiting for: %s", ready, children.size(), joiner);
+    }
+
+    private static String getStatus(Application application) {
+        ApplicationStatus status = application.getStatus();
+        if (application.getOperation() != null || (status != null && status.getOperationState() != null &&
+                OperationPhase.RUNNING.getPhase().equals(status.getOperationState().getPhase()))) {
+            return "operation in progress";
+        }
+        String syncStatus = status == null || status.getSync() == null ? null : status.getSync().getStatus();
+        String healthStatus = status == null || status.getHealth() == null ? null : status.getHealth().getStatus();
+        return String.format("%s, %s", syncStatus, healthStatus);
+    }
+
+    /**
+     * @return children that became ready last with the seconds it took from the start of the wait
+     */
+    String getSlowestChildren(int limit) {
+        List<Map.Entry<String, Long>> times = new ArrayList<>(readyTimes.entrySet());
+        times.sort((first, second) -> Long.compare(second.getValue() - start, first.getValue() - start));
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Map.Entry<String, Long> time : times.subList(0, Math.min(limit, times.size()))) {
+            joiner.add(String.format("%s (%d s)", time.getKey(),
+                    TimeUnit.NANOSECONDS.toSeconds(time.getValue() - start)));
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.process;
+
+import hudson.AbortException;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ApplicationListStream;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ArgoCDClient;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.Application;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Passes the listed applications to the consumer while the list is parsed. A failed list is requested again from
+ * the start, so the consumer can receive the same application more than once.
+ */
+public class ListApplicationsProcess extends RequestProcess<Integer> {
+
+    private final ArgoCDClient argoCDClient;
+    private final String projectName;
+    private final String selector;
+    private final List<String> fields;
+    private final Consumer<Application> consumer;
+
+    public ListApplicationsProcess(TaskListener listener, ArgoCDClient argoCDClient, String projectName,
+                                   String selector, List<String> fields, Consumer<Application> consumer) {
+        super(listener);
+        this.argoCDClient = argoCDClient;
+        this.projectName = projectName;
+        this.selector = selector;
+        this.fields = fields;
+        this.consumer = consumer;
+    }
+
+    // Stream is closed by the reading thread, stopping only ends the loop
+    protected ProcessResult<Integer> run() throws AbortException {
+        int count = 0;
+        try (ApplicationListStream stream = argoCDClient.streamApplications(projectName, selector, fields)) {
+            while (isRunning() && stream.hasNext()) {
+                checkInterruptions();
+                consumer.accept(stream.next());
+                count++;
+            }
+        }
+        if (!isRunning()) {
+            return ProcessResult.unfinished();
+        }
+        return ProcessResult.success(count);
+    }
+}
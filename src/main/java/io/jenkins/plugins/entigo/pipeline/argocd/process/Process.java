@@ -1,6 +1,7 @@
 package io.jenkins.plugins.entigo.pipeline.argocd.process;
 
 import hudson.AbortException;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.Deadline;
 
 /**
  * Author: Märt Erlenheim
@@ -11,4 +12,10 @@ public interface Process<T> {
     ProcessResult<T> start() throws AbortException;
 
     void stop();
+
+    /**
+     * Process can stop retrying when the next attempt would start after the deadline.
+     */
+    default void setDeadline(Deadline deadline) {
+    }
 }
@@ -0,0 +1,210 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.process;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import io.jenkins.plugins.entigo.pipeline.PluginConfiguration;
+import io.jenkins.plugins.entigo.pipeline.util.ProcessThreadFactory;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the ArgoCD processes on a dedicated bounded thread pool. Processes block for the whole wait, running them on
+ * the shared jenkins Timer would starve the periodic work of Jenkins core. With virtual threads every process gets
+ * its own virtual thread instead, only the number of running processes is limited. Watch stream readers get their
+ * own bounded pool, so that a reader never waits for a process thread held by its own process.
+ */
+@Extension
+public class ProcessExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(ProcessExecutor.class.getName());
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+    // Reader of a closed stream keeps its thread until the read timeout, while the process already reads a new stream
+    private static final int READERS_PER_PROCESS = 2;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicInteger virtualRunningCount = new AtomicInteger();
+    private final AtomicLong virtualCompletedCount = new AtomicLong();
+    private final ThreadFactory virtualThreadFactory = new ProcessThreadFactory("ArgoCD process");
+    private final ThreadFactory readerThreadFactory = new ProcessThreadFactory("ArgoCD watch reader");
+    private ThreadPoolExecutor executor = null;
+    private ThreadPoolExecutor readers = null;
+    private int queueSize;
+    private Semaphore virtualPermits = null;
+    private Semaphore virtualReaderPermits = null;
+    private int virtualLimit;
+
+    public static ProcessExecutor get() {
+        return ExtensionList.lookupSingleton(ProcessExecutor.class);
+    }
+
+    /**
+     * @throws RejectedExecutionException when all threads are busy and the queue is full, with virtual threads when
+     * the virtual process limit is reached
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        if (ProcessThreadFactory.isVirtualThreads()) {
+            return submitVirtual(task);
+        }
+        return getExecutor().submit(task);
+    }
+
+    // Thread per process, cancelling the future interrupts the virtual thread like a pooled one
+    private <T> Future<T> submitVirtual(Callable<T> task) {
+        Semaphore permits = getVirtualPermits();
+        if (!permits.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException(String.format("All %d virtual ArgoCD processes are running",
+                    virtualLimit));
+        }
+        FutureTask<T> future = new FutureTask<>(task);
+        try {
+            virtualThreadFactory.newThread(() -> {
+                virtualRunningCount.incrementAndGet();
+                try {
+                    future.run();
+                } finally {
+                    virtualRunningCount.decrementAndGet();
+                    virtualCompletedCount.incrementAndGet();
+                    permits.release();
+                }
+            }).start();
+        } catch (RuntimeException | Error exception) {
+            permits.release();
+            throw exception;
+        }
+        return future;
+    }
+
+    /**
+     * Runs a watch stream reader, there are at most twice as many readers as process threads or virtual processes.
+     * @throws RejectedExecutionException when all reader threads are busy
+     */
+    public void executeReader(Runnable reader) {
+        if (ProcessThreadFactory.isVirtualThreads()) {
+            executeVirtualReader(reader, getVirtualReaderPermits());
+        } else {
+            getReaders().execute(reader);
+        }
+    }
+
+    private void executeVirtualReader(Runnable reader, Semaphore permits) {
+        if (!permits.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException(String.format("All %d virtual ArgoCD watch readers are running",
+                    virtualLimit * READERS_PER_PROCESS));
+        }
+        try {
+            readerThreadFactory.newThread(() -> {
+                try {
+                    reader.run();
+                } finally {
+                    permits.release();
+                }
+            }).start();
+        } catch (RuntimeException | Error exception) {
+            permits.release();
+            throw exception;
+        }
+    }
+
+    // Replaced when the limit changes, running processes release the permits of the old limit
+    private synchronized Semaphore getVirtualPermits() {
+        int limit = PluginConfiguration.get().getVirtualProcessLimit();
+        if (virtualPermits == null || limit != virtualLimit) {
+            virtualPermits = new Semaphore(limit);
+            virtualReaderPermits = new Semaphore(limit * READERS_PER_PROCESS);
+            virtualLimit = limit;
+        }
+        return virtualPermits;
+    }
+
+    private synchronized Semaphore getVirtualReaderPermits() {
+        getVirtualPermits();
+        return virtualReaderPermits;
+    }
+
+    // Readers don't queue, a stream that can't be read right away is retried by its process
+    private synchronized ThreadPoolExecutor getReaders() {
+        if (readers == null) {
+            readers = new ThreadPoolExecutor(0, PluginConfiguration.get().getProcessThreads() * READERS_PER_PROCESS,
+                    KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(), readerThreadFactory,
+                    (task, pool) -> {
+                        rejectedCount.incrementAndGet();
+                        throw new RejectedExecutionException(String.format("All %d ArgoCD watch reader threads " +
+                                "are busy", pool.getMaximumPoolSize()));
+                    });
+        }
+        return readers;
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            PluginConfiguration configuration = PluginConfiguration.get();
+            executor = createExecutor(configuration.getProcessThreads(), configuration.getProcessQueueSize());
+        }
+        return executor;
+    }
+
+    private ThreadPoolExecutor createExecutor(int threads, int queueSize) {
+        this.queueSize = queueSize;
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueSize),
+                new ProcessThreadFactory("ArgoCD process"),
+                (task, pool) -> {
+                    rejectedCount.incrementAndGet();
+                    throw new RejectedExecutionException(String.format("All %d ArgoCD process threads are busy " +
+                            "and %d processes are queued", pool.getMaximumPoolSize(), pool.getQueue().size()));
+                });
+        threadPool.allowCoreThreadTimeOut(true);
+        return threadPool;
+    }
+
+    public synchronized void configure(int threads, int queueSize) {
+        if (readers != null) {
+            readers.setMaximumPoolSize(threads * READERS_PER_PROCESS);
+        }
+        if (executor == null) {
+            // Created with the current configuration on first use
+            return;
+        }
+        if (queueSize != this.queueSize) {
+            // Queue capacity can't be changed, running and queued processes finish in the old pool
+            LOGGER.log(Level.FINE, "Replacing ArgoCD process executor, threads: {0}, queue size: {1}",
+                    new Object[]{threads, queueSize});
+            executor.shutdown();
+            executor = createExecutor(threads, queueSize);
+        } else if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    public synchronized int getActiveCount() {
+        return (executor == null ? 0 : executor.getActiveCount()) + virtualRunningCount.get();
+    }
+
+    public synchronized int getQueuedCount() {
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    public synchronized long getCompletedCount() {
+        return (executor == null ? 0 : executor.getCompletedTaskCount()) + virtualCompletedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public String getStatus() {
+        return String.format("Running processes: %d, queued: %d, completed: %d, rejected: %d, threads: %s",
+                getActiveCount(), getQueuedCount(), getCompletedCount(), getRejectedCount(),
+                ProcessThreadFactory.isVirtualThreads() ? "virtual" : "platform");
+    }
+}
@@ -2,10 +2,13 @@ package io.jenkins.plugins.entigo.pipeline.argocd.process;
 
 import hudson.AbortException;
 import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.Deadline;
 import io.jenkins.plugins.entigo.pipeline.rest.ResponseException;
 import io.jenkins.plugins.entigo.pipeline.rest.RetryableException;
 import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Author: Märt Erlenheim
  * Date: 2020-12-01
@@ -16,8 +19,9 @@ public abstract class RequestProcess<T> implements Process<T> {
     private static final int MAX_RETRY_DELAY = 30;
 
     private final TaskListener listener;
-    private boolean running = true;
+    private volatile boolean running = true;
     private long retryDelay = INITIAL_RETRY_DELAY;
+    private Deadline deadline = null;
 
     protected RequestProcess(TaskListener listener) {
         this.listener = listener;
@@ -35,6 +39,18 @@ public abstract class RequestProcess<T> implements Process<T> {
         return retryDelay;
     }
 
+    /**
+     * @param retryDelay in seconds, delay before the next run, doubles with every following unfinished run
+     */
+    protected void setRetryDelay(long retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    @Override
+    public void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
     protected abstract ProcessResult<T> run() throws AbortException;
 
     @Override
@@ -45,6 +61,10 @@ public abstract class RequestProcess<T> implements Process<T> {
             if (result.hasFinished()) {
                 return result;
             }
+            if (deadline != null && deadline.getRemaining(TimeUnit.SECONDS) <= retryDelay) {
+                ListenerUtil.println(listener, "Not retrying, step timeout expires before the next retry");
+                return ProcessResult.unfinished();
+            }
             sleep(retryDelay * 1000L);
             if (retryDelay < MAX_RETRY_DELAY) {
                 retryDelay = Math.min(MAX_RETRY_DELAY, retryDelay * 2);
@@ -71,7 +91,7 @@ public abstract class RequestProcess<T> implements Process<T> {
     public void stop() {
         if (this.running) {
             this.running = false;
-            ListenerUtil.println(listener, "Closing the connection, please wait a minute");
+            ListenerUtil.println(listener, "Closing the connection");
             close();
         }
     }
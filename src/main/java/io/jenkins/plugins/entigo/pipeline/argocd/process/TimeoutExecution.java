@@ -2,12 +2,16 @@ package io.jenkins.plugins.entigo.pipeline.argocd.process;
 
 import hudson.AbortException;
 import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.Deadline;
 import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
 import jenkins.util.Timer;
 
 import java.util.concurrent.*;
 
 /**
+ * Stopping or timing out stops the process and cancels its future, which interrupts the process thread so that it
+ * doesn't keep sleeping between retries or waiting for the stream. The result can be awaited with run or composed
+ * with the future returned by start.
  * Author: Märt Erlenheim
  * Date: 2020-10-29
  */
@@ -15,33 +19,102 @@ public class TimeoutExecution<T> {
 
     private final Process<T> process;
     private final TaskListener listener;
-    private final long end;
+    private final Deadline deadline;
+    private final CompletableFuture<ProcessResult<T>> result = new CompletableFuture<>();
+    private Future<?> future = null;
+    private volatile boolean stopped = false;
 
     public TimeoutExecution(TaskListener listener, Process<T> process, long timeout) {
+        this(listener, process, Deadline.after(timeout, TimeUnit.SECONDS));
+    }
+
+    public TimeoutExecution(TaskListener listener, Process<T> process, Deadline deadline) {
         this.process = process;
         this.listener = listener;
-        end = System.currentTimeMillis() + (timeout * 1000);
+        this.deadline = deadline;
+        process.setDeadline(deadline);
     }
 
+    /**
+     * Blocks until the process finishes, the waiting thread doesn't run the process.
+     * @throws TimeoutException when the deadline expires before the process finishes
+     */
     public ProcessResult<T> run() throws TimeoutException {
-        long delay = end - System.currentTimeMillis();
-        if (delay > 0) {
-            try {
-                return Timer.get().submit(this::process).get(delay, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException exception) {
-                Thread.currentThread().interrupt();
-                return ProcessResult.failure(new AbortException("Process thread was interrupted"));
-            } catch (ExecutionException exception) {
-                return ProcessResult.failure(exception);
-            } catch (TimeoutException exception) {
-                ListenerUtil.error(listener, "Process timed out, stopping the process");
-                stop();
-                throw exception;
+        try {
+            return start().get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            stop();
+            return ProcessResult.failure(new AbortException("Process thread was interrupted"));
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof TimeoutException) {
+                throw (TimeoutException) exception.getCause();
             }
-        } else {
+            return ProcessResult.failure(exception);
+        }
+    }
+
+    /**
+     * Starts the process on the process executor without blocking, the deadline is watched by the jenkins Timer
+     * instead of a waiting thread. Can be called once.
+     * @return completes with the result of the process, exceptionally with a TimeoutException when the deadline
+     * expires first
+     */
+    public CompletableFuture<ProcessResult<T>> start() {
+        long delay = deadline.getRemaining(TimeUnit.MILLISECONDS);
+        if (delay <= 0) {
+            result.complete(ProcessResult.failure(new AbortException("Timeout expired during a break")));
             stop();
-            return ProcessResult.failure(new AbortException("Timeout expired during a break"));
+            return result;
+        }
+        try {
+            submit();
+        } catch (RejectedExecutionException exception) {
+            result.complete(ProcessResult.failure(new AbortException("Couldn't start the ArgoCD process: " +
+                    exception.getMessage())));
+            return result;
+        } catch (CancellationException exception) {
+            result.complete(stoppedResult());
+            return result;
         }
+        ScheduledFuture<?> timeout = Timer.get().schedule(this::timeout, delay, TimeUnit.MILLISECONDS);
+        result.whenComplete((processResult, exception) -> timeout.cancel(false));
+        return result;
+    }
+
+    private void timeout() {
+        if (result.completeExceptionally(new TimeoutException("Process timed out"))) {
+            ListenerUtil.error(listener, "Process timed out, stopping the process");
+            stop();
+        }
+    }
+
+    private synchronized void submit() {
+        if (stopped) {
+            throw new CancellationException("Process was stopped before it started");
+        }
+        future = ProcessExecutor.get().submit(() -> {
+            complete(process());
+            return null;
+        });
+    }
+
+    private void complete(ProcessResult<T> processResult) {
+        if (stopped) {
+            // A stopped process returns an unfinished result, which has no value to get
+            result.complete(stoppedResult());
+        } else if (!processResult.hasFinished()) {
+            // Process gave up as the deadline would expire before the next retry
+            if (result.completeExceptionally(new TimeoutException("Deadline expires before the next retry"))) {
+                ListenerUtil.error(listener, "Process timed out");
+            }
+        } else {
+            result.complete(processResult);
+        }
+    }
+
+    private ProcessResult<T> stoppedResult() {
+        return ProcessResult.failure(new AbortException("Process was stopped"));
     }
 
     public ProcessResult<T> process() {
@@ -52,7 +125,16 @@ public class TimeoutExecution<T> {
         }
     }
 
-    public synchronized void stop() {
-        process.stop();
+    public void stop() {
+        synchronized (this) {
+            stopped = true;
+            process.stop();
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+        // Cancelled before it ran, the process doesn't complete the result itself. Outside the lock, as completion
+        // runs the callbacks of the result.
+        result.complete(stoppedResult());
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.process;
+
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ArgoCDClient;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.Application;
+
+/**
+ * Upsert is idempotent, so failed requests can be retried even when ArgoCD already applied them.
+ */
+public class UpsertApplicationProcess extends RequestProcess<Application> {
+
+    private final ArgoCDClient argoCDClient;
+    private final Application application;
+
+    public UpsertApplicationProcess(TaskListener listener, ArgoCDClient argoCDClient, Application application) {
+        super(listener);
+        this.argoCDClient = argoCDClient;
+        this.application = application;
+    }
+
+    protected ProcessResult<Application> run() {
+        return ProcessResult.success(argoCDClient.createApplication(application, true));
+    }
+}
@@ -2,15 +2,21 @@ package io.jenkins.plugins.entigo.pipeline.argocd.process;
 
 import hudson.AbortException;
 import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ApplicationEventStream;
 import io.jenkins.plugins.entigo.pipeline.argocd.client.ArgoCDClient;
 import io.jenkins.plugins.entigo.pipeline.argocd.model.*;
+import io.jenkins.plugins.entigo.pipeline.rest.NotFoundException;
+import io.jenkins.plugins.entigo.pipeline.rest.RetryableException;
 import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
-import org.glassfish.jersey.client.ChunkedInput;
+import io.jenkins.plugins.entigo.pipeline.util.RevisionUtil;
+import io.jenkins.plugins.entigo.pipeline.util.SyncResourceUtil;
 
-import javax.ws.rs.core.GenericType;
-import javax.ws.rs.core.Response;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.TreeSet;
 
 /**
  * Author: Märt Erlenheim
@@ -18,62 +24,292 @@ import java.util.StringJoiner;
  */
 public class WaitApplicationProcess extends RequestProcess<Void> {
 
-    private static final Integer READ_TIMEOUT = 30000;
+    // Only the fields used by isApplicationReady and the tree watch, skips the rest of the spec, managed fields and
+    // history
+    private static final List<String> WATCH_FIELDS = Arrays.asList(
+            "result.type",
+            "result.application.metadata.name",
+            "result.application.metadata.resourceVersion",
+            "result.application.spec.project",
+            "result.application.operation",
+            "result.application.status.operationState",
+            "result.application.status.reconciledAt",
+            "result.application.status.health",
+            "result.application.status.sync",
+            "result.application.status.resources"
+    );
+
+    // Streams that end, fail or stay idle without any events before falling back to polling
+    private static final int STREAM_FAILURE_LIMIT = 3;
+    // Poll intervals in seconds
+    private static final long OPERATION_POLL_INTERVAL = 2;
+    private static final long HEALTH_POLL_INTERVAL = 10;
+    private static final int SLOWEST_CHILDREN_LIMIT = 5;
 
     private final TaskListener listener;
     private final ArgoCDClient argoCDClient;
     private final String applicationName;
+    private final String projectName;
+    private final Integer readTimeout;
+    private final List<SyncResource> resources;
+    private final String revision;
+    private final ApplicationTree tree;
+    // Projects of the root and the discovered children, the tree watch only covers these
+    private final Set<String> projects = new TreeSet<>();
+    private Set<String> watchedProjects = Collections.emptySet();
+    private boolean rootReady = false;
+    private String resourceVersion;
+    // Latest version received by the tree watch, a reconnect continues from it
+    private String watchVersion;
     private String lastLoggedMessage;
-    private transient Response response = null;
-    private transient ChunkedInput<ApplicationWatchEvent> input = null;
+    private boolean polling;
+    private int failedStreams = 0;
+    private boolean streamWorks = false;
+    private transient ApplicationEventStream stream = null;
 
-    public WaitApplicationProcess(TaskListener listener, ArgoCDClient argoCDClient, String applicationName) {
+    /**
+     * @param projectName optional, limits the watch to the application project
+     * @param resourceVersion optional, events with older application versions are skipped by ArgoCD, also avoids
+     *                        the replay of all applications when the tree watch connects for the first time
+     * @param readTimeout in milliseconds, stream is kept open without events at most for that long
+     * @param resources optional, only these resources have to become synced and healthy
+     * @param revision optional commit SHA, application has to be synced to this revision
+     * @param recursive also waits for the child applications of an app-of-apps, watches the applications of all
+     *                  projects of the tree with one stream instead of only the named application
+     */
+    public WaitApplicationProcess(TaskListener listener, ArgoCDClient argoCDClient, String applicationName,
+                                  String projectName, String resourceVersion, Integer readTimeout,
+                                  WaitStrategy waitStrategy, List<SyncResource> resources, String revision,
+                                  boolean recursive) {
         super(listener);
         this.listener = listener;
         this.argoCDClient = argoCDClient;
         this.applicationName = applicationName;
+        this.projectName = projectName;
+        if (projectName != null) {
+            this.projects.add(projectName);
+        }
+        this.resourceVersion = resourceVersion;
+        this.watchVersion = resourceVersion;
+        this.readTimeout = readTimeout;
+        this.resources = resources;
+        this.revision = revision;
+        this.tree = recursive ? new ApplicationTree(applicationName) : null;
+        this.polling = waitStrategy == WaitStrategy.POLL;
     }
 
     protected ProcessResult<Void> run() throws AbortException {
+        if (polling) {
+            return poll();
+        } else {
+            return watch();
+        }
+    }
+
+    private ProcessResult<Void> poll() throws AbortException {
+        Application application = loadTree();
+        if (isReady(application)) {
+            logReady();
+            return ProcessResult.success(null);
+        }
+        // Operation finishes quickly, waiting for the resources to become healthy usually takes longer
+        setRetryDelay(isOperationRunning(application) ? OPERATION_POLL_INTERVAL : HEALTH_POLL_INTERVAL);
+        return ProcessResult.unfinished();
+    }
+
+    // Root and the known children, unchanged applications are served from the client cache
+    private Application loadTree() {
+        Application application = argoCDClient.getApplication(applicationName, projectName);
+        if (tree != null) {
+            trackProject(application);
+            for (String child : tree.getChildren().toArray(new String[0])) {
+                loadChild(child);
+            }
+        }
+        return application;
+    }
+
+    private boolean isOperationRunning(Application application) {
+        OperationState operationState = application.getStatus().getOperationState();
+        return application.getOperation() != null || (operationState != null &&
+                OperationPhase.RUNNING.getPhase().equals(operationState.getPhase()));
+    }
+
+    private ProcessResult<Void> watch() throws AbortException {
+        boolean received = false;
+        long start = System.currentTimeMillis();
         try {
-            input = getInput();
+            if (tree == null) {
+                stream = argoCDClient.watchApplication(applicationName, projects, resourceVersion, WATCH_FIELDS,
+                        readTimeout);
+            } else {
+                // Children can be in other projects, events of applications outside the tree are skipped. Resuming
+                // from the latest version skips the replay of all applications, so the current state of the tree is
+                // loaded after connecting instead, changes in between are received through the stream.
+                watchedProjects = new TreeSet<>(projects);
+                stream = argoCDClient.watchApplication(null, watchedProjects, watchVersion, WATCH_FIELDS,
+                        readTimeout);
+                if (isReady(loadTree())) {
+                    logReady();
+                    return ProcessResult.success(null);
+                } else if (hasUnwatchedProjects()) {
+                    resetRetryDelay();
+                    return ProcessResult.unfinished();
+                }
+            }
             ApplicationWatchEvent event;
-            while ((event = input.read()) != null && isRunning()) {
+            while ((event = stream.read()) != null && isRunning()) {
                 checkInterruptions();
                 resetRetryDelay();
-                if (isApplicationReady(event.getResult().getApplication())) {
-                    ListenerUtil.println(listener, "Application is synced and healthy");
+                received = true;
+                streamWorks = true;
+                failedStreams = 0;
+                Application application = event.getResult().getApplication();
+                updateResourceVersion(application);
+                if (tree != null && !tree.contains(application.getMetadata().getName())) {
+                    continue;
+                }
+                trackProject(application);
+                if (isReady(application)) {
+                    logReady();
                     return ProcessResult.success(null);
+                } else if (hasUnwatchedProjects()) {
+                    resetRetryDelay();
+                    return ProcessResult.unfinished();
                 }
             }
-            // Null event, either client or server closed the connection
+            // Null event, either client or server closed the connection or the read timed out
+            if (!received && streamWorks && isIdleTimeout(start)) {
+                // Earlier streams passed events, so the application just didn't change, reconnect without counting
+                // it as a failure. A proxy that buffers the stream keeps it idle from the start.
+                resetRetryDelay();
+                return ProcessResult.unfinished();
+            }
             if (getRetryDelay() > INITIAL_RETRY_DELAY) {
                 ListenerUtil.println(listener, String.format("Connection was interrupted, retrying in %d seconds",
                         getRetryDelay()));
             }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            checkInterruptions();
+        } catch (RetryableException exception) {
+            checkStreamFailures(received);
+            throw exception;
         } finally {
             close();
         }
+        checkStreamFailures(received);
         return ProcessResult.unfinished();
     }
 
-    private ChunkedInput<ApplicationWatchEvent> getInput() {
-        // Using timeout because otherwise closing a blocking InputStream would be only possible when the block releases
-        this.response = argoCDClient.watchApplication(applicationName, READ_TIMEOUT);
-        ChunkedInput<ApplicationWatchEvent> chunkedInput = response.readEntity(
-                new GenericType<ChunkedInput<ApplicationWatchEvent>>() {}
-        );
-        chunkedInput.setParser(ChunkedInput.createParser("\n"));
-        return chunkedInput;
+    private boolean isIdleTimeout(long start) {
+        return readTimeout != null && readTimeout > 0 && System.currentTimeMillis() - start >= readTimeout;
+    }
+
+    // Proxies that don't support chunked streaming either close or buffer the stream without passing any events
+    private void checkStreamFailures(boolean received) {
+        if (!received && isRunning() && ++failedStreams >= STREAM_FAILURE_LIMIT) {
+            ListenerUtil.println(listener, String.format("Application watch stream failed %d times without any " +
+                    "events, falling back to polling", failedStreams));
+            polling = true;
+            resetRetryDelay();
+        }
+    }
+
+    // Reconnecting continues from the last received version, the tree watch from the latest version of any application
+    private void updateResourceVersion(Application application) {
+        if (application.getMetadata() == null || application.getMetadata().getResourceVersion() == null) {
+            return;
+        }
+        String version = application.getMetadata().getResourceVersion();
+        if (tree == null) {
+            resourceVersion = version;
+        } else if (!isOlderVersion(version, watchVersion)) {
+            watchVersion = version;
+        }
+    }
+
+    private void trackProject(Application application) {
+        if (tree != null && application.getSpec() != null && application.getSpec().getProject() != null) {
+            projects.add(application.getSpec().getProject());
+        }
+    }
+
+    // Watch without projects covers all of them
+    private boolean hasUnwatchedProjects() {
+        if (watchedProjects.isEmpty() || watchedProjects.containsAll(projects)) {
+            return false;
+        }
+        ListenerUtil.println(listener, "Found child applications in other projects, watching the projects: " +
+                String.join(", ", projects));
+        return true;
     }
 
     @Override
     protected synchronized void close() {
-        if (input != null) {
-            input.close();
+        if (stream != null) {
+            stream.close();
         }
-        if (response != null) {
-            response.close();
+    }
+
+    private boolean isReady(Application application) throws AbortException {
+        if (tree == null) {
+            return isApplicationReady(application);
+        }
+        if (applicationName.equals(application.getMetadata().getName())) {
+            if (isOlderVersion(application)) {
+                return false;
+            }
+            rootReady = isApplicationReady(application);
+        }
+        for (String child : tree.update(application)) {
+            loadChild(child);
+        }
+        if (!rootReady) {
+            return false;
+        } else if (!tree.isReady()) {
+            logMessage(tree.getPendingStatus());
+            return false;
+        }
+        return true;
+    }
+
+    // Stream of all applications can't skip old root versions, ArgoCD also compares the versions as numbers
+    private boolean isOlderVersion(Application application) {
+        return isOlderVersion(application.getMetadata().getResourceVersion(), resourceVersion);
+    }
+
+    private static boolean isOlderVersion(String version, String otherVersion) {
+        if (version == null || otherVersion == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(version) < Long.parseLong(otherVersion);
+        } catch (NumberFormatException exception) {
+            return false;
+        }
+    }
+
+    // Children of the loaded child are loaded recursively
+    private void loadChild(String name) {
+        try {
+            Application application = argoCDClient.getApplication(name, null);
+            trackProject(application);
+            for (String child : tree.update(application)) {
+                loadChild(child);
+            }
+        } catch (NotFoundException exception) {
+            // Parent hasn't created the child yet, it's received when it's created
+        }
+    }
+
+    private void logReady() {
+        if (tree != null && !tree.getChildren().isEmpty()) {
+            ListenerUtil.println(listener, String.format("Application and its %d child applications are synced " +
+                    "and healthy, slowest children: %s", tree.getChildren().size(),
+                    tree.getSlowestChildren(SLOWEST_CHILDREN_LIMIT)));
+        } else {
+            ListenerUtil.println(listener, "Application is synced and healthy");
         }
     }
 
@@ -84,7 +320,11 @@ public class WaitApplicationProcess extends RequestProcess<Void> {
         } else if (application.getStatus().getOperationState() != null) {
             ApplicationStatus status = application.getStatus();
             OperationState operationState = status.getOperationState();
-            if (OperationPhase.FAILED.getPhase().equals(operationState.getPhase())) {
+            if (isPreviousOperation(operationState)) {
+                // Event from before the sync request, the state of the previous operation doesn't matter
+                logMessage("Waiting for the sync operation of revision " + revision);
+                return false;
+            } else if (OperationPhase.FAILED.getPhase().equals(operationState.getPhase())) {
                 failProcess(operationState);
             }  else if (operationState.getFinishedAt() == null || (status.getReconciledAt() == null ||
                     status.getReconciledAt().isBefore(operationState.getFinishedAt()))) {
@@ -93,12 +333,73 @@ public class WaitApplicationProcess extends RequestProcess<Void> {
             }
         }
 
+        if (revision != null) {
+            return isRevisionReady(application);
+        }
         String healthStatus = application.getStatus().getHealth().getStatus();
         String syncStatus = application.getStatus().getSync().getStatus();
         logMessage(getStatus(application, false));
+        if (resources != null && !resources.isEmpty()) {
+            // Application status also covers the resources that weren't synced
+            return areResourcesReady(application.getStatus().getResources());
+        }
         return Health.HEALTHY.getStatus().equals(healthStatus) && Sync.SYNCED.getStatus().equals(syncStatus);
     }
 
+    // Sync status is compared with the target revision of the application, which can already point to a newer commit,
+    // so only the result of the operation and the health count
+    private boolean isRevisionReady(Application application) {
+        ApplicationStatus status = application.getStatus();
+        OperationState operationState = status.getOperationState();
+        String syncedRevision = operationState == null || operationState.getSyncResult() == null ? null :
+                operationState.getSyncResult().getRevision();
+        if (!RevisionUtil.matches(revision, syncedRevision)) {
+            logMessage(String.format("Waiting for revision %s, synced revision: %s", revision, syncedRevision));
+            return false;
+        }
+        logMessage(getStatus(application, false));
+        if (resources != null && !resources.isEmpty()) {
+            return areResourcesReady(status.getResources());
+        }
+        return Health.HEALTHY.getStatus().equals(status.getHealth().getStatus());
+    }
+
+    private boolean isPreviousOperation(OperationState operationState) {
+        if (revision == null || operationState.getOperation() == null ||
+                operationState.getOperation().getSync() == null) {
+            return false;
+        }
+        String operationRevision = operationState.getOperation().getSync().getRevision();
+        return operationRevision != null && !RevisionUtil.matches(revision, operationRevision);
+    }
+
+    private boolean areResourcesReady(List<ResourceStatus> statuses) {
+        if (statuses == null) {
+            return false;
+        }
+        for (SyncResource resource : resources) {
+            boolean found = false;
+            for (ResourceStatus status : statuses) {
+                if (SyncResourceUtil.matches(resource, status)) {
+                    found = true;
+                    if (!isResourceReady(status)) {
+                        return false;
+                    }
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isResourceReady(ResourceStatus resource) {
+        boolean synced = revision != null || Sync.SYNCED.getStatus().equals(resource.getStatus());
+        return synced && (resource.getHealth() == null ||
+                Health.HEALTHY.getStatus().equals(resource.getHealth().getStatus()));
+    }
+
     private void failProcess(OperationState operationState) throws AbortException {
         ListenerUtil.error(listener, "ArgoCD operation failed with message: " + operationState.getMessage());
         logSyncFailures(operationState.getSyncResult());
@@ -141,6 +442,9 @@ public class WaitApplicationProcess extends RequestProcess<Void> {
         } else {
             StringJoiner sb = new StringJoiner("; ");
             for (ResourceStatus resource : resources) {
+                if (!SyncResourceUtil.isSelected(this.resources, resource)) {
+                    continue;
+                }
                 if (!Sync.SYNCED.getStatus().equals(resource.getStatus())) {
                     sb.add(getResourceStatus(resource, resource.getStatus()));
                 } else if (resource.getHealth() != null &&
@@ -0,0 +1,168 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.process;
+
+import hudson.AbortException;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ApplicationEventStream;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ApplicationListStream;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ArgoCDClient;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.ApplicationWatchEvent;
+import io.jenkins.plugins.entigo.pipeline.rest.RetryableException;
+import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Waits until the applications have been removed, which with cascade happens after all of their resources have
+ * been deleted. Every connection first lists the remaining applications and then watches from the resource version
+ * of the list, so ArgoCD doesn't replay the existing applications. A deletion between the list and the watch is
+ * found by the list of the next connection. When the streams keep failing without any events the process falls back
+ * to listing the applications periodically.
+ */
+public class WaitApplicationsDeletedProcess extends RequestProcess<Void> {
+
+    private static final String DELETED_EVENT = "DELETED";
+    private static final List<String> WATCH_FIELDS = Arrays.asList(
+            "result.type",
+            "result.application.metadata.name"
+    );
+    private static final List<String> LIST_FIELDS = Arrays.asList("metadata.resourceVersion", "items.metadata.name");
+    // Streams that end, fail or stay idle without any events before falling back to polling
+    private static final int STREAM_FAILURE_LIMIT = 3;
+    // Poll interval in seconds
+    private static final long POLL_INTERVAL = 10;
+
+    private final TaskListener listener;
+    private final ArgoCDClient argoCDClient;
+    private final String projectName;
+    private final Integer readTimeout;
+    private final Set<String> pending;
+    private boolean polling = false;
+    private int failedStreams = 0;
+    private boolean streamWorks = false;
+    private boolean listed = false;
+    private transient ApplicationEventStream stream = null;
+
+    /**
+     * @param projectName optional, limits the watch and the list to the project of the applications
+     * @param readTimeout in milliseconds, stream is kept open without events at most for that long
+     */
+    public WaitApplicationsDeletedProcess(TaskListener listener, ArgoCDClient argoCDClient,
+                                          Collection<String> applicationNames, String projectName,
+                                          Integer readTimeout) {
+        super(listener);
+        this.listener = listener;
+        this.argoCDClient = argoCDClient;
+        this.projectName = projectName;
+        this.readTimeout = readTimeout;
+        this.pending = new LinkedHashSet<>(applicationNames);
+    }
+
+    protected ProcessResult<Void> run() throws AbortException {
+        if (polling) {
+            return poll();
+        }
+        boolean received = false;
+        try {
+            String resourceVersion = removeListedDeletions();
+            if (pending.isEmpty()) {
+                ListenerUtil.println(listener, "All applications are deleted");
+                return ProcessResult.success(null);
+            }
+            synchronized (this) {
+                if (!isRunning()) {
+                    return ProcessResult.unfinished();
+                }
+                stream = argoCDClient.watchApplication(null, projectName == null ? null :
+                        Collections.singleton(projectName), resourceVersion, WATCH_FIELDS, readTimeout);
+            }
+            long start = System.currentTimeMillis();
+            ApplicationWatchEvent event;
+            while ((event = stream.read()) != null && isRunning()) {
+                checkInterruptions();
+                resetRetryDelay();
+                received = true;
+                streamWorks = true;
+                failedStreams = 0;
+                String name = event.getResult().getApplication().getMetadata().getName();
+                if (DELETED_EVENT.equals(event.getResult().getType()) && pending.remove(name)) {
+                    ListenerUtil.println(listener, String.format("Application %s is deleted, %d remaining", name,
+                            pending.size()));
+                    if (pending.isEmpty()) {
+                        return ProcessResult.success(null);
+                    }
+                }
+            }
+            if (!received && streamWorks && readTimeout != null &&
+                    System.currentTimeMillis() - start >= readTimeout) {
+                // Earlier streams passed events, so nothing changed, reconnect without counting it as a failure
+                resetRetryDelay();
+                return ProcessResult.unfinished();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            checkInterruptions();
+        } catch (RetryableException exception) {
+            checkStreamFailures(received);
+            throw exception;
+        } finally {
+            close();
+        }
+        checkStreamFailures(received);
+        return ProcessResult.unfinished();
+    }
+
+    private ProcessResult<Void> poll() {
+        removeListedDeletions();
+        if (pending.isEmpty()) {
+            ListenerUtil.println(listener, "All applications are deleted");
+            return ProcessResult.success(null);
+        }
+        setRetryDelay(POLL_INTERVAL);
+        return ProcessResult.unfinished();
+    }
+
+    // Proxies that don't support chunked streaming either close or buffer the stream without passing any events
+    private void checkStreamFailures(boolean received) {
+        if (!received && isRunning() && ++failedStreams >= STREAM_FAILURE_LIMIT) {
+            ListenerUtil.println(listener, String.format("Application watch stream failed %d times without any " +
+                    "events, falling back to polling", failedStreams));
+            polling = true;
+            resetRetryDelay();
+        }
+    }
+
+    /**
+     * @return resource version of the list, null when ArgoCD didn't send it
+     */
+    private String removeListedDeletions() {
+        Set<String> existing = new HashSet<>();
+        String resourceVersion;
+        try (ApplicationListStream list = argoCDClient.streamApplications(projectName, null, LIST_FIELDS)) {
+            while (list.hasNext()) {
+                existing.add(list.next().getMetadata().getName());
+            }
+            resourceVersion = list.getMetadata() == null ? null : list.getMetadata().getResourceVersion();
+        }
+        int count = pending.size();
+        pending.retainAll(existing);
+        if (count != pending.size() || !listed) {
+            listed = true;
+            ListenerUtil.println(listener, String.format("Waiting for %d applications to be deleted: %s",
+                    pending.size(), String.join(", ", pending)));
+        }
+        return resourceVersion;
+    }
+
+    @Override
+    protected synchronized void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
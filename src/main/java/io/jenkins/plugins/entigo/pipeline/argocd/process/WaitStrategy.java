@@ -0,0 +1,16 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.process;
+
+public enum WaitStrategy {
+    STREAM("Watch stream, falls back to polling when the stream keeps failing"),
+    POLL("Polling");
+
+    private final String displayName;
+
+    WaitStrategy(final String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -3,98 +3,361 @@ package io.jenkins.plugins.entigo.pipeline.argocd.service;
 import hudson.AbortException;
 import hudson.model.TaskListener;
 import io.jenkins.plugins.entigo.pipeline.argocd.client.ArgoCDClient;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.Deadline;
 import io.jenkins.plugins.entigo.pipeline.argocd.model.*;
 import io.jenkins.plugins.entigo.pipeline.argocd.process.*;
 import io.jenkins.plugins.entigo.pipeline.argocd.process.Process;
 import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+import io.jenkins.plugins.entigo.pipeline.util.RevisionUtil;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
+ * Thread safe, parallel branches and batch steps can run several processes through the same service at once.
+ * All processes share the deadline of the service, which covers every request. Services of one step share the
+ * deadline of the step. Async methods don't block the caller, their processes run on the process executor and the
+ * deadline is watched by the jenkins Timer, so a caller can fan out to many applications from one thread. Failed
+ * async results complete with a CompletionException caused by the exception the blocking method throws.
  * Author: Märt Erlenheim
  * Date: 2020-08-18
  */
 public class ArgoCDService {
 
+    // Reader of a closed watch stream is blocked until the next event or read timeout, this limits how long
+    private static final long WATCH_IDLE_TIMEOUT = 60;
+
     private final ArgoCDClient argoCDClient;
     private final TaskListener listener;
-    private final long timeout;
-    private final Lock lock = new ReentrantLock();
-    private TimeoutExecution<?> processExecution = null;
+    private final Deadline deadline;
+    private final WaitStrategy waitStrategy;
+    private final Set<TimeoutExecution<?>> processExecutions = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopped = false;
 
     public ArgoCDService(ArgoCDClient argoCDClient, TaskListener listener, long timeout) {
-        this.argoCDClient = argoCDClient;
+        this(argoCDClient, listener, timeout, WaitStrategy.STREAM);
+    }
+
+    public ArgoCDService(ArgoCDClient argoCDClient, TaskListener listener, long timeout,
+                         WaitStrategy waitStrategy) {
+        this(argoCDClient, listener, Deadline.after(timeout, TimeUnit.SECONDS), waitStrategy);
+    }
+
+    public ArgoCDService(ArgoCDClient argoCDClient, TaskListener listener, Deadline deadline,
+                         WaitStrategy waitStrategy) {
+        this.deadline = deadline;
+        this.argoCDClient = argoCDClient.withDeadline(deadline);
         this.listener = listener;
-        this.timeout = timeout;
+        this.waitStrategy = waitStrategy;
     }
 
     public Application getApplication(String applicationName, String projectName) throws AbortException,
             ProcessException {
         ListenerUtil.println(listener, String.format("Getting ArgoCD application %s, timeout: %d seconds",
-                applicationName, timeout));
+                applicationName, getRemainingTimeout()));
         GetApplicationProcess process = new GetApplicationProcess(listener, argoCDClient, applicationName, projectName);
-        return (Application) getResultTimeoutAborts(process);
+        return getResultTimeoutAborts(process);
     }
 
-    public void syncApplication(String applicationName) throws AbortException, ProcessException {
-        ListenerUtil.println(listener, String.format("Syncing ArgoCD application %s, timeout: %d seconds",
-                applicationName, timeout));
-        SyncApplicationProcess process = new SyncApplicationProcess(listener, argoCDClient, applicationName,
-                createSyncRequest(applicationName));
-        getResultTimeoutAborts(process);
+    /**
+     * @param projectName optional, only lists applications of this project
+     * @param selector optional, Kubernetes label selector
+     * @param fields optional, only these json paths are included in the response, e.g. items.metadata.name
+     * @param consumer receives the applications one at a time while the list is read, an application can be
+     *                 received again when the list request is retried
+     * @return number of listed applications
+     */
+    public int listApplications(String projectName, String selector, List<String> fields,
+                                Consumer<Application> consumer) throws AbortException, ProcessException {
+        ListenerUtil.println(listener, String.format("Listing ArgoCD applications, timeout: %d seconds",
+                getRemainingTimeout()));
+        ListApplicationsProcess process = new ListApplicationsProcess(listener, argoCDClient, projectName, selector,
+                fields, consumer);
+        return getResultTimeoutAborts(process);
+    }
+
+    /**
+     * Checks whether a sync of the whole application with its target revision would change anything, unchanged
+     * application is served from the client cache with a conditional request. Logs why the application is or isn't
+     * considered synced.
+     */
+    public boolean isApplicationSynced(String applicationName) throws AbortException, ProcessException {
+        Application application = getApplication(applicationName, null);
+        ApplicationStatus status = application.getStatus();
+        if (status == null || status.getSync() == null || status.getHealth() == null) {
+            ListenerUtil.println(listener, "Application has no sync or health status yet");
+            return false;
+        }
+        OperationState operationState = status.getOperationState();
+        if (application.getOperation() != null || (operationState != null &&
+                OperationPhase.RUNNING.getPhase().equals(operationState.getPhase()))) {
+            ListenerUtil.println(listener, "Application has an operation running");
+            return false;
+        }
+        String syncStatus = status.getSync().getStatus();
+        String healthStatus = status.getHealth().getStatus();
+        if (!Sync.SYNCED.getStatus().equals(syncStatus) || !Health.HEALTHY.getStatus().equals(healthStatus)) {
+            ListenerUtil.println(listener, String.format("Application sync status: %s, health status: %s",
+                    syncStatus, healthStatus));
+            return false;
+        }
+        ListenerUtil.println(listener, String.format("Application is synced to revision %s and healthy, no " +
+                "operation is running", status.getSync().getRevision()));
+        return true;
     }
 
-    private ApplicationSyncRequest createSyncRequest(String applicationName) {
+    public Application syncApplication(ApplicationSyncRequest syncRequest) throws AbortException, ProcessException {
+        return getResultTimeoutAborts(createSyncProcess(syncRequest));
+    }
+
+    public CompletableFuture<Application> syncApplicationAsync(ApplicationSyncRequest syncRequest) {
+        return getResultTimeoutAbortsAsync(createSyncProcess(syncRequest));
+    }
+
+    private SyncApplicationProcess createSyncProcess(ApplicationSyncRequest syncRequest) {
+        String applicationName = syncRequest.getName();
+        if (syncRequest.getResources() == null || syncRequest.getResources().isEmpty()) {
+            ListenerUtil.println(listener, String.format("Syncing ArgoCD application %s, timeout: %d seconds",
+                    applicationName, getRemainingTimeout()));
+        } else {
+            ListenerUtil.println(listener, String.format("Syncing %d resources of ArgoCD application %s, " +
+                    "timeout: %d seconds", syncRequest.getResources().size(), applicationName, getRemainingTimeout()));
+        }
+        return new SyncApplicationProcess(listener, argoCDClient, applicationName, syncRequest);
+    }
+
+    /**
+     * @param syncOptions optional, ArgoCD sync options like ApplyOutOfSyncOnly=true
+     * @return request for syncing the whole application with pruning
+     */
+    public ApplicationSyncRequest createSyncRequest(String applicationName, SyncStrategyType strategyType,
+                                                    List<String> syncOptions) {
         SyncStrategy syncStrategy = new SyncStrategy();
-        syncStrategy.setHook(new SyncStrategyHook(true));
+        if (strategyType == SyncStrategyType.APPLY) {
+            syncStrategy.setApply(new SyncStrategyApply(true));
+        } else {
+            syncStrategy.setHook(new SyncStrategyHook(true));
+        }
         ApplicationSyncRequest syncRequest = new ApplicationSyncRequest();
         syncRequest.setName(applicationName);
         syncRequest.setPrune(true);
         syncRequest.setStrategy(syncStrategy);
+        if (syncOptions != null && !syncOptions.isEmpty()) {
+            syncRequest.setSyncOptions(new SyncOptions(syncOptions));
+        }
         return syncRequest;
     }
 
-    public void waitApplicationStatus(String applicationName, boolean waitFailure) throws AbortException,
+    /**
+     * Waits only for the resources of the request, when a commit SHA revision was requested then also for that
+     * revision to be synced. Branch and tag revisions can't be compared, ArgoCD reports the resolved commit SHA.
+     * @param syncedApplication optional, application returned by the sync request, narrows down the watched events
+     */
+    public void waitApplicationStatus(ApplicationSyncRequest syncRequest, Application syncedApplication,
+                                      boolean waitFailure) throws AbortException, ProcessException {
+        waitApplicationStatus(syncRequest, syncedApplication, false, waitFailure);
+    }
+
+    /**
+     * @param recursive also waits for all child applications of an app-of-apps to become synced and healthy
+     */
+    public void waitApplicationStatus(ApplicationSyncRequest syncRequest, Application syncedApplication,
+                                      boolean recursive, boolean waitFailure) throws AbortException,
             ProcessException {
-        ListenerUtil.println(listener, "Waiting for application to sync, timeout: " + timeout + " seconds");
-        WaitApplicationProcess process = new WaitApplicationProcess(this.listener, argoCDClient, applicationName);
+        String revision = RevisionUtil.isCommitSha(syncRequest.getRevision()) ? syncRequest.getRevision() : null;
+        WaitApplicationProcess process = createWaitProcess(syncRequest.getName(), syncedApplication,
+                syncRequest.getResources(), revision, recursive);
         try {
             getResult(process);
         } catch (TimeoutException exception) {
-            if (waitFailure) {
-                throw new AbortException("Process timed out");
-            } else {
-                ListenerUtil.println(listener, "waitFailure was False, continuing build");
+            handleWaitTimeout(waitFailure);
+        }
+    }
+
+    /**
+     * Doesn't block, the wait runs on the process executor.
+     * @see #waitApplicationStatus(ApplicationSyncRequest, Application, boolean)
+     */
+    public CompletableFuture<Void> waitApplicationStatusAsync(ApplicationSyncRequest syncRequest,
+                                                              Application syncedApplication, boolean waitFailure) {
+        String revision = RevisionUtil.isCommitSha(syncRequest.getRevision()) ? syncRequest.getRevision() : null;
+        WaitApplicationProcess process = createWaitProcess(syncRequest.getName(), syncedApplication,
+                syncRequest.getResources(), revision, false);
+        CompletableFuture<Void> result = getResultAsync(process);
+        return cancelsSource(result.handle((value, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = unwrap(throwable);
+                if (!(cause instanceof TimeoutException)) {
+                    throw toCompletionException(cause);
+                }
+                try {
+                    handleWaitTimeout(waitFailure);
+                } catch (AbortException exception) {
+                    throw new CompletionException(exception);
+                }
+            }
+            return null;
+        }), result);
+    }
+
+    private void handleWaitTimeout(boolean waitFailure) throws AbortException {
+        if (waitFailure) {
+            throw new AbortException("Process timed out");
+        } else {
+            ListenerUtil.println(listener, "waitFailure was False, continuing build");
+        }
+    }
+
+    private WaitApplicationProcess createWaitProcess(String applicationName, Application syncedApplication,
+                                                     List<SyncResource> resources, String revision,
+                                                     boolean recursive) {
+        ListenerUtil.println(listener, "Waiting for application to sync, timeout: " + getRemainingTimeout() +
+                " seconds");
+        String projectName = null;
+        String resourceVersion = null;
+        if (syncedApplication != null) {
+            if (syncedApplication.getSpec() != null) {
+                projectName = syncedApplication.getSpec().getProject();
+            }
+            if (syncedApplication.getMetadata() != null) {
+                resourceVersion = syncedApplication.getMetadata().getResourceVersion();
             }
         }
+        // Idle stream is reopened after the read timeout, closed streams release their connections by then
+        return new WaitApplicationProcess(this.listener, argoCDClient, applicationName, projectName,
+                resourceVersion, deadline.limitTimeout(TimeUnit.SECONDS.toMillis(WATCH_IDLE_TIMEOUT)), waitStrategy,
+                resources, revision, recursive);
+    }
+
+    /**
+     * Creates the application or updates the existing application to the given spec.
+     */
+    public Application upsertApplication(Application application) throws AbortException, ProcessException {
+        return getResultTimeoutAborts(createUpsertProcess(application));
+    }
+
+    public CompletableFuture<Application> upsertApplicationAsync(Application application) {
+        return getResultTimeoutAbortsAsync(createUpsertProcess(application));
+    }
+
+    private UpsertApplicationProcess createUpsertProcess(Application application) {
+        ListenerUtil.println(listener, String.format("Creating or updating ArgoCD application %s, timeout: %d " +
+                "seconds", application.getMetadata().getName(), getRemainingTimeout()));
+        return new UpsertApplicationProcess(listener, argoCDClient, application);
     }
 
     public void deleteApplication(String applicationName, boolean cascade) throws AbortException, ProcessException {
+        getResultTimeoutAborts(createDeleteProcess(applicationName, cascade));
+    }
+
+    public CompletableFuture<Void> deleteApplicationAsync(String applicationName, boolean cascade) {
+        return getResultTimeoutAbortsAsync(createDeleteProcess(applicationName, cascade));
+    }
+
+    private DeleteApplicationProcess createDeleteProcess(String applicationName, boolean cascade) {
         ListenerUtil.println(listener, String.format("Deleting ArgoCD application %s, cascade: %s, timeout: %d seconds",
-                applicationName, cascade, timeout));
-        DeleteApplicationProcess process = new DeleteApplicationProcess(listener, argoCDClient, applicationName,
-                cascade);
-        getResultTimeoutAborts(process);
+                applicationName, cascade, getRemainingTimeout()));
+        return new DeleteApplicationProcess(listener, argoCDClient, applicationName, cascade);
     }
 
-    private <T> Object getResult(Process<T> process) throws AbortException, TimeoutException,
-            ProcessException {
+    /**
+     * Waits until the applications no longer exist, with cascade deletion that includes their resources.
+     */
+    public void waitApplicationsDeleted(Collection<String> applicationNames, String projectName)
+            throws AbortException, ProcessException {
+        getResultTimeoutAborts(createWaitDeletedProcess(applicationNames, projectName));
+    }
+
+    public CompletableFuture<Void> waitApplicationsDeletedAsync(Collection<String> applicationNames,
+                                                                String projectName) {
+        return getResultTimeoutAbortsAsync(createWaitDeletedProcess(applicationNames, projectName));
+    }
+
+    private WaitApplicationsDeletedProcess createWaitDeletedProcess(Collection<String> applicationNames,
+                                                                    String projectName) {
+        ListenerUtil.println(listener, String.format("Waiting for %d ArgoCD applications to be deleted, timeout: " +
+                "%d seconds", applicationNames.size(), getRemainingTimeout()));
+        return new WaitApplicationsDeletedProcess(listener, argoCDClient, applicationNames, projectName,
+                deadline.limitTimeout(TimeUnit.SECONDS.toMillis(WATCH_IDLE_TIMEOUT)));
+    }
+
+    private <T> T getResult(Process<T> process) throws AbortException, TimeoutException, ProcessException {
+        CompletableFuture<T> result = getResultAsync(process);
         try {
-            lock.lockInterruptibly();
-            this.processExecution = new TimeoutExecution<>(this.listener, process, this.timeout);
-            ProcessResult<?> result = this.processExecution.run();
             return result.get();
         } catch (InterruptedException exception) {
             Thread.currentThread().interrupt();
-            return null;
-        } finally {
-            lock.unlock();
+            result.cancel(true);
+            throw new AbortException("Process thread was interrupted");
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof AbortException) {
+                throw (AbortException) cause;
+            } else if (cause instanceof TimeoutException) {
+                throw (TimeoutException) cause;
+            } else if (cause instanceof ProcessException) {
+                throw (ProcessException) cause;
+            }
+            throw new ProcessException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Failed result completes with a CompletionException caused by the AbortException, ProcessException or
+     * TimeoutException that the blocking methods throw. Cancelling the result stops the process.
+     */
+    private <T> CompletableFuture<T> getResultAsync(Process<T> process) {
+        TimeoutExecution<T> processExecution = new TimeoutExecution<>(this.listener, process, this.deadline);
+        processExecutions.add(processExecution);
+        // Checked after adding, so that a concurrent stop either sees this execution or is seen here
+        if (stopped) {
+            processExecutions.remove(processExecution);
+            CompletableFuture<T> result = new CompletableFuture<>();
+            result.completeExceptionally(new AbortException("ArgoCD service was stopped"));
+            return result;
         }
+        CompletableFuture<T> result = processExecution.start().thenApply(ArgoCDService::getValue);
+        result.whenComplete((value, throwable) -> {
+            processExecutions.remove(processExecution);
+            if (throwable instanceof CancellationException) {
+                processExecution.stop();
+            }
+        });
+        return result;
+    }
+
+    private static <T> T getValue(ProcessResult<T> result) {
+        try {
+            return result.get();
+        } catch (AbortException | ProcessException exception) {
+            throw new CompletionException(exception);
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() :
+                throwable;
+    }
+
+    private static CompletionException toCompletionException(Throwable throwable) {
+        return throwable instanceof CompletionException ? (CompletionException) throwable :
+                new CompletionException(throwable);
+    }
+
+    private long getRemainingTimeout() {
+        return deadline.getRemaining(TimeUnit.SECONDS);
     }
 
-    private <T> Object getResultTimeoutAborts(Process<T> process) throws AbortException, ProcessException {
+    private <T> T getResultTimeoutAborts(Process<T> process) throws AbortException, ProcessException {
         try {
             return getResult(process);
         } catch (TimeoutException exception) {
@@ -102,9 +365,35 @@ public class ArgoCDService {
         }
     }
 
+    private <T> CompletableFuture<T> getResultTimeoutAbortsAsync(Process<T> process) {
+        CompletableFuture<T> result = getResultAsync(process);
+        return cancelsSource(result.handle((value, throwable) -> {
+            if (throwable == null) {
+                return value;
+            }
+            Throwable cause = unwrap(throwable);
+            throw toCompletionException(cause instanceof TimeoutException ?
+                    new AbortException("Process timed out") : cause);
+        }), result);
+    }
+
+    // Dependent stages don't cancel their source, cancelling the returned stage must still stop the process
+    private static <T> CompletableFuture<T> cancelsSource(CompletableFuture<T> stage, CompletableFuture<?> source) {
+        stage.whenComplete((value, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                source.cancel(true);
+            }
+        });
+        return stage;
+    }
+
+    /**
+     * Stops all running processes, processes started after this are aborted.
+     */
     public void stop() {
-        if (this.processExecution != null) {
-            this.processExecution.stop();
+        this.stopped = true;
+        for (TimeoutExecution<?> processExecution : processExecutions) {
+            processExecution.stop();
         }
     }
 
@@ -0,0 +1,325 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.service;
+
+import hudson.AbortException;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks of a dependency graph, a task starts when all of its dependencies have succeeded. Tasks are
+ * asynchronous, at most maxParallel of them run at a time. The calling thread starts the tasks and waits for their
+ * completions, the scheduler has no threads of its own.
+ */
+public class DependencyScheduler {
+
+    public interface Task {
+        /**
+         * Starts the task without waiting for it.
+         * @return completes when the task is done, cancelling it must stop the task
+         * @throws Exception when the task can't be started, the task fails
+         */
+        CompletionStage<?> start(String name) throws Exception;
+    }
+
+    private static final class Completion {
+
+        private final String name;
+        private final Throwable throwable;
+
+        private Completion(String name, Throwable throwable) {
+            this.name = name;
+            this.throwable = throwable;
+        }
+    }
+
+    private final TaskListener listener;
+    private final Map<String, List<String>> dependencies;
+    private final int maxParallel;
+    private final boolean failFast;
+    private final Map<String, TaskResult> results = new LinkedHashMap<>();
+    private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+    private final Map<String, Long> endTimes = new ConcurrentHashMap<>();
+
+    /**
+     * @param dependencies names of the tasks in the preferred start order with the names of their dependencies
+     * @param failFast cancels the running tasks and doesn't start new ones after the first failure, otherwise only
+     *                 the tasks depending on the failed task are skipped
+     * @throws IllegalArgumentException when a dependency is unknown or the dependencies have a cycle
+     */
+    public DependencyScheduler(TaskListener listener, Map<String, List<String>> dependencies, int maxParallel,
+                               boolean failFast) {
+        validateDependencies(dependencies);
+        this.listener = listener;
+        this.dependencies = dependencies;
+        this.maxParallel = Math.max(1, maxParallel);
+        this.failFast = failFast;
+    }
+
+    private static void validateDependencies(Map<String, List<String>> dependencies) {
+        for (Map.Entry<String, List<String>> entry : dependencies.entrySet()) {
+            for (String dependency : entry.getValue()) {
+                if (!dependencies.containsKey(dependency)) {
+                    throw new IllegalArgumentException(String.format("%s depends on unknown application %s",
+                            entry.getKey(), dependency));
+                }
+            }
+        }
+        // Kahn's algorithm, tasks left over are part of a cycle
+        Map<String, Integer> remaining = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        Deque<String> ready = new ArrayDeque<>();
+        for (Map.Entry<String, List<String>> entry : dependencies.entrySet()) {
+            remaining.put(entry.getKey(), entry.getValue().size());
+            for (String dependency : entry.getValue()) {
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(entry.getKey());
+            }
+            if (entry.getValue().isEmpty()) {
+                ready.add(entry.getKey());
+            }
+        }
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            remaining.remove(name);
+            for (String dependent : dependents.getOrDefault(name, Collections.emptyList())) {
+                int count = remaining.merge(dependent, -1, Integer::sum);
+                if (count == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (!remaining.isEmpty()) {
+            throw new IllegalArgumentException("Dependencies have a cycle between applications: " +
+                    String.join(", ", new LinkedHashSet<>(remaining.keySet())));
+        }
+    }
+
+    /**
+     * @return results of all tasks in the given order
+     * @throws InterruptedException when interrupted while waiting, running tasks are cancelled
+     */
+    public Map<String, TaskResult> run(Task task) throws InterruptedException {
+        // Tasks complete on the threads of their processes, only the completions are handed over to this thread
+        BlockingQueue<Completion> completions = new LinkedBlockingQueue<>();
+        Map<String, CompletableFuture<?>> running = new HashMap<>();
+        Set<String> pending = new LinkedHashSet<>(dependencies.keySet());
+        boolean cancelled = false;
+        try {
+            while (true) {
+                if (!cancelled) {
+                    startReadyTasks(task, completions, running, pending);
+                }
+                if (running.isEmpty()) {
+                    break;
+                }
+                Completion completion = completions.take();
+                running.remove(completion.name);
+                TaskResult result = getResult(completion);
+                results.put(completion.name, result);
+                if (result == TaskResult.FAILED && failFast && !cancelled) {
+                    cancelled = true;
+                    ListenerUtil.println(listener, "Cancelling the remaining tasks, failFast is enabled");
+                    cancel(running);
+                }
+            }
+        } finally {
+            // Interrupted while waiting
+            cancel(running);
+        }
+        for (String name : pending) {
+            results.put(name, cancelled ? TaskResult.CANCELLED : TaskResult.SKIPPED);
+        }
+        return getResults();
+    }
+
+    private void startReadyTasks(Task task, BlockingQueue<Completion> completions,
+                                 Map<String, CompletableFuture<?>> running, Set<String> pending) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Iterator<String> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                String name = iterator.next();
+                String failedDependency = getFailedDependency(name);
+                if (failedDependency != null) {
+                    ListenerUtil.println(listener, String.format("Skipping %s, dependency %s didn't succeed", name,
+                            failedDependency));
+                    results.put(name, TaskResult.SKIPPED);
+                    iterator.remove();
+                    changed = true;
+                } else if (running.size() < maxParallel && areDependenciesDone(name)) {
+                    running.put(name, startTask(task, name, completions));
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<?> startTask(Task task, String name, BlockingQueue<Completion> completions) {
+        startTimes.put(name, System.nanoTime());
+        CompletableFuture<?> future;
+        try {
+            future = task.start(name).toCompletableFuture();
+        } catch (Exception exception) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(exception);
+            future = failed;
+        }
+        future.whenComplete((value, throwable) -> {
+            endTimes.put(name, System.nanoTime());
+            completions.add(new Completion(name, throwable));
+        });
+        return future;
+    }
+
+    // Cancelled tasks complete right away, their completions are taken like any other
+    private static void cancel(Map<String, CompletableFuture<?>> running) {
+        for (CompletableFuture<?> future : running.values()) {
+            future.cancel(true);
+        }
+    }
+
+    private TaskResult getResult(Completion completion) {
+        String name = completion.name;
+        if (completion.throwable == null) {
+            ListenerUtil.println(listener, String.format("%s finished in %d seconds", name, getDuration(name)));
+            return TaskResult.SUCCESS;
+        }
+        Throwable cause = completion.throwable;
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof CancellationException) {
+            ListenerUtil.println(listener, name + " was cancelled");
+            return TaskResult.CANCELLED;
+        }
+        // AbortException messages are meant for the build log, other exceptions need their type
+        String message = cause instanceof AbortException ? cause.getMessage() : cause.toString();
+        ListenerUtil.error(listener, String.format("%s failed after %d seconds: %s", name, getDuration(name),
+                message));
+        return TaskResult.FAILED;
+    }
+
+    private String getFailedDependency(String name) {
+        for (String dependency : dependencies.get(name)) {
+            TaskResult result = results.get(dependency);
+            if (result != null && result != TaskResult.SUCCESS) {
+                return dependency;
+            }
+        }
+        return null;
+    }
+
+    private boolean areDependenciesDone(String name) {
+        for (String dependency : dependencies.get(name)) {
+            if (results.get(dependency) != TaskResult.SUCCESS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Map<String, TaskResult> getResults() {
+        Map<String, TaskResult> orderedResults = new LinkedHashMap<>();
+        for (String name : dependencies.keySet()) {
+            orderedResults.put(name, results.get(name));
+        }
+        return orderedResults;
+    }
+
+    /**
+     * @return names of the tasks that didn't succeed with their results
+     */
+    public List<String> getFailures() {
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, TaskResult> result : getResults().entrySet()) {
+            if (result.getValue() != TaskResult.SUCCESS) {
+                failures.add(String.format("%s (%s)", result.getKey(), result.getValue().getDisplayName()));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * @return task names with the names of their results, in the given order
+     */
+    public Map<String, String> getResultNames() {
+        Map<String, String> resultNames = new LinkedHashMap<>();
+        for (Map.Entry<String, TaskResult> result : getResults().entrySet()) {
+            resultNames.put(result.getKey(), result.getValue().name());
+        }
+        return resultNames;
+    }
+
+    /**
+     * Chain of tasks that determined the end of the run, every task on the path was started by the end of the
+     * previous one.
+     * @return task names from the first to the last started task, empty when no task ran
+     */
+    public List<String> getCriticalPath() {
+        List<String> path = new ArrayList<>();
+        String current = getLastFinished(dependencies.keySet());
+        while (current != null) {
+            path.add(0, current);
+            current = getLastFinished(dependencies.get(current));
+        }
+        return path;
+    }
+
+    private String getLastFinished(Iterable<String> names) {
+        String last = null;
+        for (String name : names) {
+            Long endTime = endTimes.get(name);
+            if (endTime != null && (last == null || endTime - endTimes.get(last) > 0)) {
+                last = name;
+            }
+        }
+        return last;
+    }
+
+    public void logCriticalPath() {
+        List<String> path = getCriticalPath();
+        if (path.isEmpty()) {
+            return;
+        }
+        StringJoiner joiner = new StringJoiner(" -> ");
+        long duration = 0;
+        for (String name : path) {
+            joiner.add(String.format("%s (%d s)", name, getDuration(name)));
+            duration += getDuration(name);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(endTimes.get(path.get(path.size() - 1)) -
+                startTimes.get(path.get(0)));
+        // Difference between elapsed and duration is the time tasks waited for a free slot
+        ListenerUtil.println(listener, String.format("Critical path: %s, total %d seconds, %d seconds waiting " +
+                "for parallel slots", joiner, elapsed, Math.max(0, elapsed - duration)));
+    }
+
+    private long getDuration(String name) {
+        Long startTime = startTimes.get(name);
+        Long endTime = endTimes.get(name);
+        if (startTime == null || endTime == null) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toSeconds(endTime - startTime);
+    }
+}
@@ -0,0 +1,148 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.service;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import hudson.AbortException;
+import hudson.FilePath;
+import io.jenkins.plugins.entigo.pipeline.rest.RequestBodyException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rendered manifests from workspace files, every YAML document is a separate manifest. Files are read one at a time
+ * while the request is serialized, only the documents of the current file are kept in memory. Every iteration reads
+ * the files again, so a failed sync request can be retried.
+ */
+@JsonSerialize(as = Iterable.class)
+public class ManifestDocuments implements Iterable<String> {
+
+    // Document start marker, content after it on the same line belongs to the new document
+    private static final Pattern DOCUMENT_START = Pattern.compile("^---(?:[ \\t]+(.*?))?\\s*$");
+    private static final Pattern DOCUMENT_END = Pattern.compile("^\\.\\.\\.\\s*(#.*)?$");
+
+    private final List<FilePath> files;
+    private final long size;
+
+    private ManifestDocuments(List<FilePath> files, long size) {
+        this.files = files;
+        this.size = size;
+    }
+
+    /**
+     * @param pattern Ant style pattern relative to the workspace, e.g. rendered/**&#47;*.yaml
+     * @param sizeLimit in bytes, total size of the matched files
+     */
+    public static ManifestDocuments find(FilePath workspace, String pattern, long sizeLimit) throws IOException,
+            InterruptedException {
+        FilePath[] files = workspace.list(pattern);
+        if (files.length == 0) {
+            throw new AbortException("Couldn't find any manifest files with pattern: " + pattern);
+        }
+        // Same order on every build
+        Arrays.sort(files, Comparator.comparing(FilePath::getRemote));
+        long size = 0;
+        for (FilePath file : files) {
+            size += file.length();
+        }
+        if (size > sizeLimit) {
+            throw new AbortException(String.format("Manifest files are %d bytes, which exceeds the limit of %d bytes",
+                    size, sizeLimit));
+        }
+        return new ManifestDocuments(Arrays.asList(files), size);
+    }
+
+    public int getFileCount() {
+        return files.size();
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new DocumentIterator();
+    }
+
+    private class DocumentIterator implements Iterator<String> {
+
+        private int fileIndex = 0;
+        private Iterator<String> documents = Collections.emptyIterator();
+
+        @Override
+        public boolean hasNext() {
+            while (!documents.hasNext() && fileIndex < files.size()) {
+                documents = readDocuments(files.get(fileIndex++)).iterator();
+            }
+            return documents.hasNext();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return documents.next();
+        }
+    }
+
+    // File is closed before its documents are serialized, an interrupted request doesn't leave remote streams open.
+    // Read errors abort the sync request instead of retrying it.
+    private static List<String> readDocuments(FilePath file) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.read(), StandardCharsets.UTF_8))) {
+            return readDocuments(reader);
+        } catch (IOException exception) {
+            throw new RequestBodyException(String.format("Failed to read manifest file %s: %s", file.getRemote(),
+                    exception.getMessage()), exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RequestBodyException("Reading manifest files was interrupted", exception);
+        }
+    }
+
+    // Documents with only comments or blank lines are skipped
+    static List<String> readDocuments(BufferedReader reader) throws IOException {
+        List<String> documents = new ArrayList<>();
+        StringBuilder document = new StringBuilder();
+        boolean hasContent = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            Matcher start = DOCUMENT_START.matcher(line);
+            boolean documentStart = start.matches();
+            if (documentStart || DOCUMENT_END.matcher(line).matches()) {
+                if (hasContent) {
+                    documents.add(document.toString());
+                }
+                document.setLength(0);
+                hasContent = false;
+                String inlineContent = documentStart ? start.group(1) : null;
+                if (inlineContent != null && !inlineContent.isEmpty() && !inlineContent.startsWith("#")) {
+                    // E.g. a block scalar or a tag, the marker is kept so that the line stays valid YAML
+                    document.append(line).append('\n');
+                    hasContent = true;
+                }
+            } else {
+                document.append(line).append('\n');
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                    hasContent = true;
+                }
+            }
+        }
+        if (hasContent) {
+            documents.add(document.toString());
+        }
+        return documents;
+    }
+}
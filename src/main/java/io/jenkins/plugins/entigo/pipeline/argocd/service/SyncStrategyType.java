@@ -0,0 +1,30 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.service;
+
+import java.util.Locale;
+
+public enum SyncStrategyType {
+    HOOK("Hook, runs the resource hooks"),
+    APPLY("Apply, skips the resource hooks");
+
+    private final String displayName;
+
+    SyncStrategyType(final String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value is not hook or apply
+     */
+    public static SyncStrategyType fromValue(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(String.format("Invalid sync strategy %s, expected hook or apply",
+                    value), exception);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.service;
+
+public enum TaskResult {
+    SUCCESS("Succeeded"),
+    FAILED("Failed"),
+    SKIPPED("Skipped, a dependency didn't succeed"),
+    CANCELLED("Cancelled");
+
+    private final String displayName;
+
+    TaskResult(final String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,14 @@
+package io.jenkins.plugins.entigo.pipeline.rest;
+
+/**
+ * Request body couldn't be written because reading its local source failed, e.g. a workspace file. Retrying the
+ * request won't help, unlike with connection errors.
+ */
+public class RequestBodyException extends ResponseException {
+
+    private static final long serialVersionUID = 3412866905271940861L;
+
+    public RequestBodyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,121 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import com.google.common.collect.ImmutableSet;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.entigo.pipeline.util.FormValidationUtil;
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.*;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.Nonnull;
+import java.util.Set;
+
+public class DeleteApplicationsStep extends RequestStep {
+
+    private String names;
+    private String selector;
+    private String projectName;
+    private boolean cascade = true;
+    private int maxParallel = 4;
+    private boolean wait = false;
+
+    @DataBoundConstructor
+    public DeleteApplicationsStep() {
+    }
+
+    public String getNames() {
+        return names;
+    }
+
+    /**
+     * @param names application names separated by commas or new lines
+     */
+    @DataBoundSetter
+    public void setNames(String names) {
+        this.names = StringUtils.stripToNull(names);
+    }
+
+    public String getSelector() {
+        return selector;
+    }
+
+    @DataBoundSetter
+    public void setSelector(String selector) {
+        this.selector = StringUtils.stripToNull(selector);
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    @DataBoundSetter
+    public void setProjectName(String projectName) {
+        this.projectName = StringUtils.stripToNull(projectName);
+    }
+
+    public boolean isCascade() {
+        return cascade;
+    }
+
+    @DataBoundSetter
+    public void setCascade(boolean cascade) {
+        this.cascade = cascade;
+    }
+
+    public int getMaxParallel() {
+        return maxParallel;
+    }
+
+    @DataBoundSetter
+    public void setMaxParallel(int maxParallel) {
+        this.maxParallel = maxParallel;
+    }
+
+    public boolean isWait() {
+        return wait;
+    }
+
+    @DataBoundSetter
+    public void setWait(boolean wait) {
+        this.wait = wait;
+    }
+
+    Set<String> getNameSet() {
+        return GetApplicationsStep.parseNames(names);
+    }
+
+    @Override
+    public StepExecution start(StepContext stepContext) {
+        return new DeleteApplicationsStepExecution(stepContext, this);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends RequestStepDescriptor {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Delete multiple ArgoCD applications";
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(TaskListener.class, Run.class, EnvVars.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "deleteArgoApps";
+        }
+
+        public FormValidation doCheckMaxParallel(@QueryParameter String value) {
+            return FormValidationUtil.doCheckNumber(value, 1L, 100L);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import hudson.AbortException;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnection;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.ArgoCDService;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.DependencyScheduler;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.TaskResult;
+import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class DeleteApplicationsStepExecution extends RequestStepExecution<Map<String, String>> {
+
+    private static final long serialVersionUID = 1;
+    private static final List<String> LIST_FIELDS = Arrays.asList("items.metadata.name");
+
+    private final transient DeleteApplicationsStep step;
+
+    protected DeleteApplicationsStepExecution(@Nonnull StepContext context, DeleteApplicationsStep step) {
+        super(context, step);
+        this.step = step;
+    }
+
+    @Override
+    protected Map<String, String> run() throws Exception {
+        TaskListener listener = getContext().get(TaskListener.class);
+        Set<String> names = getApplicationNames();
+        ArgoCDConnection connection = getArgoCDConnection();
+        // No dependencies, the scheduler only limits the parallelism
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        for (String name : names) {
+            dependencies.put(name, Collections.emptyList());
+        }
+        ListenerUtil.println(listener, String.format("Deleting %d ArgoCD applications, cascade: %s, max parallel: " +
+                "%d", names.size(), step.isCascade(), step.getMaxParallel()));
+        DependencyScheduler scheduler = new DependencyScheduler(listener, dependencies, step.getMaxParallel(), false);
+        scheduler.run(name -> deleteApplication(connection, name));
+        List<String> failures = scheduler.getFailures();
+        if (step.isWait()) {
+            // Applications that failed to delete would never disappear
+            List<String> deleted = new ArrayList<>();
+            for (Map.Entry<String, TaskResult> result : scheduler.getResults().entrySet()) {
+                if (result.getValue() == TaskResult.SUCCESS) {
+                    deleted.add(result.getKey());
+                }
+            }
+            waitDeleted(deleted);
+        }
+        if (!failures.isEmpty()) {
+            throw new AbortException("Deleting failed for applications: " + String.join(", ", failures));
+        }
+        return scheduler.getResultNames();
+    }
+
+    /**
+     * One list request resolves the selector and checks that the named applications exist, so nothing is deleted
+     * when a name is wrong.
+     */
+    private Set<String> getApplicationNames() throws IOException, InterruptedException {
+        Set<String> names = step.getNameSet();
+        if (names.isEmpty() && step.getSelector() == null) {
+            throw new AbortException("Application names or a label selector is required");
+        }
+        Set<String> found = new LinkedHashSet<>();
+        getArgoCDService().listApplications(step.getProjectName(), step.getSelector(), LIST_FIELDS,
+                application -> {
+                    String name = application.getMetadata().getName();
+                    if (names.isEmpty() || names.contains(name)) {
+                        found.add(name);
+                    }
+                });
+        Set<String> missing = new LinkedHashSet<>(names);
+        missing.removeAll(found);
+        if (!missing.isEmpty()) {
+            throw new AbortException("ArgoCD applications not found: " + String.join(", ", missing));
+        }
+        if (found.isEmpty()) {
+            throw new AbortException("No ArgoCD applications match the selector " + step.getSelector());
+        }
+        // Named applications keep the given order
+        if (!names.isEmpty()) {
+            return names;
+        }
+        return found;
+    }
+
+    private CompletableFuture<Void> deleteApplication(ArgoCDConnection connection, String name) throws IOException,
+            InterruptedException {
+        ArgoCDService service = createArgoCDService(connection);
+        return releaseWhenDone(service, service.deleteApplicationAsync(name, step.isCascade()));
+    }
+
+    private void waitDeleted(List<String> names) throws IOException, InterruptedException {
+        if (!names.isEmpty()) {
+            getArgoCDService().waitApplicationsDeleted(names, step.getProjectName());
+        }
+    }
+}
@@ -71,7 +71,7 @@ public class GetApplicationStep extends RequestStep {
             return getApplicationInfo(application, getArgoCDConnection());
         }
 
-        private Map<String, String> getApplicationInfo(Application application, ArgoCDConnection connection) {
+        static Map<String, String> getApplicationInfo(Application application, ArgoCDConnection connection) {
             if (application == null) {
                 return null;
             } else {
@@ -0,0 +1,154 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import com.google.common.collect.ImmutableSet;
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnection;
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.*;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class GetApplicationsStep extends RequestStep {
+
+    // Only the fields used by getApplicationInfo
+    private static final List<String> LIST_FIELDS = Arrays.asList(
+            "items.metadata.name",
+            "items.spec.source.repoURL",
+            "items.spec.source.targetRevision",
+            "items.spec.source.path"
+    );
+
+    private String names;
+    private String selector;
+    private String projectName;
+
+    @DataBoundConstructor
+    public GetApplicationsStep() {
+    }
+
+    public String getNames() {
+        return names;
+    }
+
+    /**
+     * @param names application names separated by commas or new lines
+     */
+    @DataBoundSetter
+    public void setNames(String names) {
+        this.names = StringUtils.stripToNull(names);
+    }
+
+    public String getSelector() {
+        return selector;
+    }
+
+    @DataBoundSetter
+    public void setSelector(String selector) {
+        this.selector = StringUtils.stripToNull(selector);
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    @DataBoundSetter
+    public void setProjectName(String projectName) {
+        this.projectName = StringUtils.stripToNull(projectName);
+    }
+
+    Set<String> getNameSet() {
+        return parseNames(names);
+    }
+
+    /**
+     * @param names application names separated by commas or new lines
+     */
+    static Set<String> parseNames(String names) {
+        Set<String> nameSet = new LinkedHashSet<>();
+        if (names != null) {
+            for (String name : names.split("[,\\n]")) {
+                if (StringUtils.isNotBlank(name)) {
+                    nameSet.add(name.trim());
+                }
+            }
+        }
+        return nameSet;
+    }
+
+    @Override
+    public StepExecution start(StepContext stepContext) {
+        return new GetApplicationsStepExecution(stepContext, this);
+    }
+
+    public static class GetApplicationsStepExecution extends RequestStepExecution<Map<String, Map<String, String>>> {
+
+        private static final long serialVersionUID = 1;
+
+        private final transient GetApplicationsStep step;
+
+        protected GetApplicationsStepExecution(@Nonnull StepContext context, GetApplicationsStep step) {
+            super(context, step);
+            this.step = step;
+        }
+
+        /**
+         * One list request for all applications, names are filtered from the listed applications as the list
+         * endpoint only filters by a single name.
+         */
+        @Override
+        protected Map<String, Map<String, String>> run() throws Exception {
+            Set<String> names = step.getNameSet();
+            if (names.isEmpty() && step.getSelector() == null) {
+                throw new AbortException("Application names or a label selector is required");
+            }
+            ArgoCDConnection connection = getArgoCDConnection();
+            Map<String, Map<String, String>> applications = new HashMap<>();
+            // Only the requested applications are kept, the rest are dropped while the list is read
+            getArgoCDService().listApplications(step.getProjectName(), step.getSelector(), LIST_FIELDS,
+                    application -> {
+                        String name = application.getMetadata().getName();
+                        if (names.isEmpty() || names.contains(name)) {
+                            applications.put(name, GetApplicationStep.GetApplicationStepExecution.getApplicationInfo(
+                                    application, connection));
+                        }
+                    });
+            names.removeAll(applications.keySet());
+            if (!names.isEmpty()) {
+                throw new AbortException("ArgoCD applications not found: " + String.join(", ", names));
+            }
+            return applications;
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends RequestStepDescriptor {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Get multiple ArgoCD applications";
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(TaskListener.class, Run.class, EnvVars.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "getArgoApps";
+        }
+    }
+}
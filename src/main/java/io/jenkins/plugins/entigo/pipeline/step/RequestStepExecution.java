@@ -1,17 +1,26 @@
 package io.jenkins.plugins.entigo.pipeline.step;
 
+import hudson.AbortException;
 import hudson.EnvVars;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.Deadline;
 import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnection;
-import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnectionsProperty;
+import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDSession;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.ApplicationSyncRequest;
 import io.jenkins.plugins.entigo.pipeline.argocd.service.ArgoCDService;
-import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+import io.jenkins.plugins.entigo.pipeline.util.SyncOptionsUtil;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Author: Märt Erlenheim
@@ -24,6 +33,8 @@ public abstract class RequestStepExecution<T> extends SynchronousNonBlockingStep
     private final transient RequestStep step;
     private transient ArgoCDConnection argoCDConnection = null;
     private transient ArgoCDService argoCDService = null;
+    private transient Deadline deadline = null;
+    private final transient Set<ArgoCDService> argoCDServices = ConcurrentHashMap.newKeySet();
 
     protected RequestStepExecution(@Nonnull StepContext context, RequestStep step) {
         super(context);
@@ -32,27 +43,110 @@ public abstract class RequestStepExecution<T> extends SynchronousNonBlockingStep
 
     protected ArgoCDConnection getArgoCDConnection() throws IOException, InterruptedException {
         if (this.argoCDConnection == null) {
-            this.argoCDConnection = ArgoCDConnectionsProperty.getConnection(getContext().get(Run.class),
-                    getContext().get(EnvVars.class), step.getConnectionSelector());
+            this.argoCDConnection = getArgoCDConnection(step.getConnectionSelector());
         }
         return this.argoCDConnection;
     }
 
+    /**
+     * @param connectionSelector optional, env variable and global default are used without it
+     */
+    protected ArgoCDConnection getArgoCDConnection(String connectionSelector) throws IOException,
+            InterruptedException {
+        Run<?, ?> run = getContext().get(Run.class);
+        return ArgoCDSession.get(run).getConnection(run, getContext().get(EnvVars.class), connectionSelector,
+                getContext().get(TaskListener.class));
+    }
+
     protected ArgoCDService getArgoCDService() throws IOException, InterruptedException {
         if (this.argoCDService == null) {
-            ArgoCDConnection connection = getArgoCDConnection();
-            TaskListener listener = getContext().get(TaskListener.class);
-            ListenerUtil.println(listener, "Using ArgoCD connection: " + connection.getName());
-            Long timeout = step.getWaitTimeout() == null ? connection.getAppWaitTimeout() : Long.valueOf(step.getWaitTimeout());
-            this.argoCDService = new ArgoCDService(connection.getClient(), listener, timeout);
+            this.argoCDService = createArgoCDService(getArgoCDConnection());
         }
         return argoCDService;
     }
 
+    /**
+     * @return new service sharing the step deadline, stopped together with the step
+     */
+    protected ArgoCDService createArgoCDService(ArgoCDConnection connection) throws IOException,
+            InterruptedException {
+        TaskListener listener = getContext().get(TaskListener.class);
+        ArgoCDService service = new ArgoCDService(connection.getClient(), listener, getDeadline(connection),
+                connection.getWaitStrategy());
+        argoCDServices.add(service);
+        return service;
+    }
+
+    /**
+     * Step timeout covers the whole step, it starts when the first service is created. Without a step timeout the
+     * timeout of the first used connection applies.
+     */
+    private synchronized Deadline getDeadline(ArgoCDConnection connection) {
+        if (deadline == null) {
+            long timeout = step.getWaitTimeout() == null ? connection.getAppWaitTimeout() : step.getWaitTimeout();
+            deadline = Deadline.after(timeout, TimeUnit.SECONDS);
+        }
+        return deadline;
+    }
+
+    /**
+     * Syncs the application with the connection default sync strategy and options and waits until it's synced and
+     * healthy, without blocking. Uses a new service, so that parallel calls can be cancelled separately, all of them
+     * share the step deadline.
+     * @return cancelling the result stops the sync and the wait
+     */
+    protected CompletableFuture<Void> syncAndWaitAsync(ArgoCDConnection connection, String applicationName)
+            throws IOException, InterruptedException {
+        ArgoCDService service = createArgoCDService(connection);
+        try {
+            return releaseWhenDone(service, syncAndWaitAsync(service, createSyncRequest(service, connection,
+                    applicationName)));
+        } catch (IOException exception) {
+            releaseArgoCDService(service);
+            throw exception;
+        }
+    }
+
+    protected CompletableFuture<Void> syncAndWaitAsync(ArgoCDService service, ApplicationSyncRequest syncRequest) {
+        return service.syncApplicationAsync(syncRequest).thenCompose(syncedApplication ->
+                service.waitApplicationStatusAsync(syncRequest, syncedApplication, true));
+    }
+
+    protected ApplicationSyncRequest createSyncRequest(ArgoCDService service, ArgoCDConnection connection,
+                                                       String applicationName) throws AbortException {
+        List<String> syncOptions;
+        try {
+            syncOptions = SyncOptionsUtil.parseSyncOptions(connection.getSyncOptions());
+        } catch (IllegalArgumentException exception) {
+            throw new AbortException(exception.getMessage());
+        }
+        return service.createSyncRequest(applicationName, connection.getSyncStrategy(), syncOptions);
+    }
+
+    /**
+     * Releases the service when the result completes, cancelling the result stops all processes of the service.
+     */
+    protected <R> CompletableFuture<R> releaseWhenDone(ArgoCDService service, CompletableFuture<R> result) {
+        result.whenComplete((value, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                service.stop();
+            }
+            releaseArgoCDService(service);
+        });
+        return result;
+    }
+
+    /**
+     * Service created with createArgoCDService isn't stopped with the step anymore.
+     */
+    protected void releaseArgoCDService(ArgoCDService service) {
+        argoCDServices.remove(service);
+    }
+
     @Override
     public void stop(@Nonnull Throwable cause) throws Exception {
-        if (this.argoCDService != null) {
-            this.argoCDService.stop();
+        for (ArgoCDService service : argoCDServices) {
+            service.stop();
         }
         super.stop(cause);
     }
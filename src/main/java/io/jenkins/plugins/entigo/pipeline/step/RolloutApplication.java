@@ -0,0 +1,82 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.entigo.pipeline.util.FormValidationUtil;
+import org.apache.commons.lang.StringUtils;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application of a rollout, synced after all of its dependencies have synced and become healthy.
+ */
+public class RolloutApplication extends AbstractDescribableImpl<RolloutApplication> {
+
+    private final String name;
+    private String dependsOn;
+    private String connectionSelector;
+
+    @DataBoundConstructor
+    public RolloutApplication(@CheckForNull String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDependsOn() {
+        return dependsOn;
+    }
+
+    /**
+     * @param dependsOn names of the applications separated by commas
+     */
+    @DataBoundSetter
+    public void setDependsOn(String dependsOn) {
+        this.dependsOn = dependsOn;
+    }
+
+    public String getConnectionSelector() {
+        return connectionSelector;
+    }
+
+    @DataBoundSetter
+    public void setConnectionSelector(String connectionSelector) {
+        this.connectionSelector = StringUtils.stripToNull(connectionSelector);
+    }
+
+    public List<String> getDependencies() {
+        List<String> dependencies = new ArrayList<>();
+        if (StringUtils.isNotBlank(dependsOn)) {
+            for (String dependency : dependsOn.split(",")) {
+                if (StringUtils.isNotBlank(dependency)) {
+                    dependencies.add(dependency.trim());
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<RolloutApplication> {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Rollout application";
+        }
+
+        public FormValidation doCheckName(@QueryParameter String value) {
+            return FormValidationUtil.doCheckRequiredField(value, "Application name is required");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import com.google.common.collect.ImmutableSet;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.entigo.pipeline.util.FormValidationUtil;
+import org.jenkinsci.plugins.workflow.steps.*;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class RolloutApplicationsStep extends RequestStep {
+
+    private final List<RolloutApplication> applications;
+    private int maxParallel = 4;
+    private boolean failFast = true;
+
+    @DataBoundConstructor
+    public RolloutApplicationsStep(@CheckForNull List<RolloutApplication> applications) {
+        this.applications = applications == null ? Collections.emptyList() : applications;
+    }
+
+    public List<RolloutApplication> getApplications() {
+        return applications;
+    }
+
+    public int getMaxParallel() {
+        return maxParallel;
+    }
+
+    @DataBoundSetter
+    public void setMaxParallel(int maxParallel) {
+        this.maxParallel = maxParallel;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    @DataBoundSetter
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    @Override
+    public StepExecution start(StepContext stepContext) {
+        return new RolloutApplicationsStepExecution(stepContext, this);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends RequestStepDescriptor {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Roll out ArgoCD applications in dependency order";
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(TaskListener.class, Run.class, EnvVars.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "rolloutArgoApps";
+        }
+
+        public FormValidation doCheckMaxParallel(@QueryParameter String value) {
+            return FormValidationUtil.doCheckNumber(value, 1L, 100L);
+        }
+    }
+}
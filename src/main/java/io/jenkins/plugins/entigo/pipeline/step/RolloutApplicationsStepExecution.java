@@ -0,0 +1,73 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import hudson.AbortException;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.DependencyScheduler;
+import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RolloutApplicationsStepExecution extends RequestStepExecution<Map<String, String>> {
+
+    private static final long serialVersionUID = 1;
+
+    private final transient RolloutApplicationsStep step;
+
+    protected RolloutApplicationsStepExecution(@Nonnull StepContext context, RolloutApplicationsStep step) {
+        super(context, step);
+        this.step = step;
+    }
+
+    @Override
+    protected Map<String, String> run() throws Exception {
+        TaskListener listener = getContext().get(TaskListener.class);
+        Map<String, RolloutApplication> applications = getApplications();
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        for (RolloutApplication application : applications.values()) {
+            dependencies.put(application.getName(), application.getDependencies());
+        }
+        DependencyScheduler scheduler;
+        try {
+            scheduler = new DependencyScheduler(listener, dependencies, step.getMaxParallel(), step.isFailFast());
+        } catch (IllegalArgumentException exception) {
+            throw new AbortException(exception.getMessage());
+        }
+        ListenerUtil.println(listener, String.format("Rolling out %d ArgoCD applications, max parallel: %d, " +
+                "fail fast: %s", applications.size(), step.getMaxParallel(), step.isFailFast()));
+        scheduler.run(name -> syncAndWaitAsync(getArgoCDConnection(
+                getConnectionSelector(applications.get(name))), name));
+        scheduler.logCriticalPath();
+        List<String> failures = scheduler.getFailures();
+        if (!failures.isEmpty()) {
+            throw new AbortException("Rollout failed, applications not synced: " + String.join(", ", failures));
+        }
+        // LinkedHashMap keeps the order of the applications
+        return scheduler.getResultNames();
+    }
+
+    private Map<String, RolloutApplication> getApplications() throws AbortException {
+        if (step.getApplications().isEmpty()) {
+            throw new AbortException("At least one application is required");
+        }
+        Map<String, RolloutApplication> applications = new LinkedHashMap<>();
+        for (RolloutApplication application : step.getApplications()) {
+            if (StringUtils.isBlank(application.getName())) {
+                throw new AbortException("Application name is required");
+            }
+            if (applications.put(application.getName(), application) != null) {
+                throw new AbortException("Duplicate application " + application.getName());
+            }
+        }
+        return applications;
+    }
+
+    private String getConnectionSelector(RolloutApplication application) {
+        return application.getConnectionSelector() == null ? step.getConnectionSelector() :
+                application.getConnectionSelector();
+    }
+}
@@ -0,0 +1,95 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import com.google.common.collect.ImmutableSet;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.entigo.pipeline.util.FormValidationUtil;
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.*;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.util.Set;
+
+public class SyncApplicationOnConnectionsStep extends RequestStep {
+
+    private final String name;
+    private int maxInFlight = 4;
+    private String canary;
+    private boolean failOnError = true;
+
+    @DataBoundConstructor
+    public SyncApplicationOnConnectionsStep(@CheckForNull String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @DataBoundSetter
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public String getCanary() {
+        return canary;
+    }
+
+    @DataBoundSetter
+    public void setCanary(String canary) {
+        this.canary = StringUtils.stripToNull(canary);
+    }
+
+    public boolean isFailOnError() {
+        return failOnError;
+    }
+
+    @DataBoundSetter
+    public void setFailOnError(boolean failOnError) {
+        this.failOnError = failOnError;
+    }
+
+    @Override
+    public StepExecution start(StepContext stepContext) {
+        return new SyncApplicationOnConnectionsStepExecution(stepContext, this);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends RequestStepDescriptor {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Sync ArgoCD application on all matching connections";
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(TaskListener.class, Run.class, EnvVars.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "syncArgoAppOnConnections";
+        }
+
+        public FormValidation doCheckName(@QueryParameter String value) {
+            return FormValidationUtil.doCheckRequiredField(value, "Application name is required");
+        }
+
+        public FormValidation doCheckMaxInFlight(@QueryParameter String value) {
+            return FormValidationUtil.doCheckNumber(value, 1L, 100L);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnection;
+import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnectionsProperty;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.DependencyScheduler;
+import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SyncApplicationOnConnectionsStepExecution extends RequestStepExecution<Map<String, String>> {
+
+    private static final long serialVersionUID = 1;
+
+    private final transient SyncApplicationOnConnectionsStep step;
+
+    protected SyncApplicationOnConnectionsStepExecution(@Nonnull StepContext context,
+                                                        SyncApplicationOnConnectionsStep step) {
+        super(context, step);
+        this.step = step;
+    }
+
+    @Override
+    protected Map<String, String> run() throws Exception {
+        if (StringUtils.isBlank(step.getName())) {
+            throw new AbortException("Application name is required");
+        }
+        TaskListener listener = getContext().get(TaskListener.class);
+        List<ArgoCDConnection> connections = ArgoCDConnectionsProperty.getConnections(getContext().get(Run.class),
+                getContext().get(EnvVars.class), step.getConnectionSelector());
+        // Connection names are the task names, the canary is the only dependency
+        Map<String, ArgoCDConnection> namedConnections = new LinkedHashMap<>();
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        if (step.getCanary() != null) {
+            ArgoCDConnection canary = getCanary(connections);
+            namedConnections.put(canary.getName(), canary);
+            dependencies.put(canary.getName(), Collections.emptyList());
+        }
+        for (ArgoCDConnection connection : connections) {
+            if (!namedConnections.containsKey(connection.getName())) {
+                namedConnections.put(connection.getName(), connection);
+                dependencies.put(connection.getName(), step.getCanary() == null ? Collections.emptyList() :
+                        Collections.singletonList(step.getCanary()));
+            }
+        }
+        ListenerUtil.println(listener, String.format("Syncing ArgoCD application %s on %d connections: %s, " +
+                        "max in flight: %d%s", step.getName(), connections.size(),
+                String.join(", ", namedConnections.keySet()), step.getMaxInFlight(),
+                step.getCanary() == null ? "" : ", canary: " + step.getCanary()));
+        DependencyScheduler scheduler = new DependencyScheduler(listener, dependencies, step.getMaxInFlight(), false);
+        scheduler.run(connectionName -> syncAndWaitAsync(namedConnections.get(connectionName), step.getName()));
+        List<String> failures = scheduler.getFailures();
+        if (!failures.isEmpty()) {
+            String message = "Application wasn't synced on connections: " + String.join(", ", failures);
+            if (step.isFailOnError()) {
+                throw new AbortException(message);
+            }
+            ListenerUtil.error(listener, message);
+        }
+        return scheduler.getResultNames();
+    }
+
+    private ArgoCDConnection getCanary(List<ArgoCDConnection> connections) throws AbortException {
+        for (ArgoCDConnection connection : connections) {
+            if (connection.getName().equals(step.getCanary())) {
+                return connection;
+            }
+        }
+        throw new AbortException(String.format("Canary connection %s doesn't match the connection selector",
+                step.getCanary()));
+    }
+}
@@ -6,13 +6,19 @@ import hudson.Extension;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.SyncStrategyType;
 import io.jenkins.plugins.entigo.pipeline.util.FormValidationUtil;
+import io.jenkins.plugins.entigo.pipeline.util.SyncOptionsUtil;
+import io.jenkins.plugins.entigo.pipeline.util.SyncResourceUtil;
+import org.apache.commons.lang.StringUtils;
 import org.jenkinsci.plugins.workflow.steps.*;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
 import javax.annotation.CheckForNull;
+import java.util.Locale;
 import java.util.Set;
 
 /**
@@ -24,6 +30,13 @@ public class SyncApplicationStep extends RequestStep {
     private final String name;
     private boolean wait = true;
     private boolean waitFailure = true;
+    private boolean skipIfSynced = false;
+    private boolean recursive = false;
+    private String resources;
+    private String syncStrategy;
+    private String syncOptions;
+    private String manifests;
+    private String revision;
 
     @DataBoundConstructor
     public SyncApplicationStep(@CheckForNull String name) {
@@ -52,6 +65,69 @@ public class SyncApplicationStep extends RequestStep {
         this.waitFailure = waitFailure;
     }
 
+    public boolean isSkipIfSynced() {
+        return skipIfSynced;
+    }
+
+    @DataBoundSetter
+    public void setSkipIfSynced(boolean skipIfSynced) {
+        this.skipIfSynced = skipIfSynced;
+    }
+
+    public boolean isRecursive() {
+        return recursive;
+    }
+
+    @DataBoundSetter
+    public void setRecursive(boolean recursive) {
+        this.recursive = recursive;
+    }
+
+    public String getResources() {
+        return resources;
+    }
+
+    @DataBoundSetter
+    public void setResources(String resources) {
+        this.resources = resources;
+    }
+
+    public String getSyncStrategy() {
+        return syncStrategy;
+    }
+
+    @DataBoundSetter
+    public void setSyncStrategy(String syncStrategy) {
+        this.syncStrategy = syncStrategy;
+    }
+
+    public String getSyncOptions() {
+        return syncOptions;
+    }
+
+    @DataBoundSetter
+    public void setSyncOptions(String syncOptions) {
+        this.syncOptions = syncOptions;
+    }
+
+    public String getManifests() {
+        return manifests;
+    }
+
+    @DataBoundSetter
+    public void setManifests(String manifests) {
+        this.manifests = manifests;
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    @DataBoundSetter
+    public void setRevision(String revision) {
+        this.revision = revision;
+    }
+
     @Override
     public StepExecution start(StepContext stepContext) {
         return new SyncApplicationStepExecution(stepContext, this);
@@ -78,5 +154,44 @@ public class SyncApplicationStep extends RequestStep {
         public FormValidation doCheckName(@QueryParameter String value) {
             return FormValidationUtil.doCheckRequiredField(value, "Application name is required");
         }
+
+        public ListBoxModel doFillSyncStrategyItems() {
+            ListBoxModel options = new ListBoxModel();
+            options.add("Connection default", "");
+            for (SyncStrategyType strategyType : SyncStrategyType.values()) {
+                options.add(strategyType.getDisplayName(), strategyType.name().toLowerCase(Locale.ROOT));
+            }
+            return options;
+        }
+
+        public FormValidation doCheckSyncStrategy(@QueryParameter String value) {
+            if (StringUtils.isBlank(value)) {
+                return FormValidation.ok();
+            }
+            try {
+                SyncStrategyType.fromValue(value);
+                return FormValidation.ok();
+            } catch (IllegalArgumentException exception) {
+                return FormValidation.error(exception.getMessage());
+            }
+        }
+
+        public FormValidation doCheckSyncOptions(@QueryParameter String value) {
+            try {
+                SyncOptionsUtil.parseSyncOptions(value);
+                return FormValidation.ok();
+            } catch (IllegalArgumentException exception) {
+                return FormValidation.error(exception.getMessage());
+            }
+        }
+
+        public FormValidation doCheckResources(@QueryParameter String value) {
+            try {
+                SyncResourceUtil.parseResources(value);
+                return FormValidation.ok();
+            } catch (IllegalArgumentException exception) {
+                return FormValidation.error(exception.getMessage());
+            }
+        }
     }
 }
@@ -1,11 +1,25 @@
 package io.jenkins.plugins.entigo.pipeline.step;
 
+import hudson.AbortException;
+import hudson.FilePath;
 import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.PluginConfiguration;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.Application;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.ApplicationSyncRequest;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.SyncResource;
 import io.jenkins.plugins.entigo.pipeline.argocd.service.ArgoCDService;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.ManifestDocuments;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.SyncStrategyType;
 import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+import io.jenkins.plugins.entigo.pipeline.util.SyncOptionsUtil;
+import io.jenkins.plugins.entigo.pipeline.util.SyncResourceUtil;
+import org.apache.commons.lang.StringUtils;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Author: Märt Erlenheim
@@ -24,14 +38,100 @@ public class SyncApplicationStepExecution extends RequestStepExecution<Void> {
 
     @Override
     public Void run() throws Exception {
+        List<SyncResource> resources = getResources();
         ArgoCDService argoCDService = getArgoCDService();
-        argoCDService.syncApplication(step.getName());
+        if (step.isSkipIfSynced() && canSkipSync() && argoCDService.isApplicationSynced(step.getName())) {
+            TaskListener listener = getContext().get(TaskListener.class);
+            ListenerUtil.println(listener, "Application is already synced and healthy, skipping sync");
+            return null;
+        }
+        ApplicationSyncRequest syncRequest = argoCDService.createSyncRequest(step.getName(), getSyncStrategy(),
+                getSyncOptions());
+        if (!resources.isEmpty()) {
+            syncRequest.setResources(resources);
+        }
+        if (StringUtils.isNotBlank(step.getRevision())) {
+            syncRequest.setRevision(step.getRevision().trim());
+        }
+        if (StringUtils.isNotBlank(step.getManifests())) {
+            syncRequest.setManifests(getManifests());
+        }
+        Application application = argoCDService.syncApplication(syncRequest);
         if (Boolean.TRUE.equals(step.getWait())) {
-            argoCDService.waitApplicationStatus(step.getName(), step.isWaitFailure());
+            argoCDService.waitApplicationStatus(syncRequest, application, step.isRecursive(),
+                    step.isWaitFailure());
         } else {
             TaskListener listener = getContext().get(TaskListener.class);
             ListenerUtil.println(listener, "Waiting disabled, won't wait for sync to complete");
         }
         return null;
     }
+
+    // Synced status only covers the whole application with its target revision and the usual sync settings
+    private boolean canSkipSync() throws IOException, InterruptedException {
+        List<String> overrides = new ArrayList<>();
+        if (StringUtils.isNotBlank(step.getResources())) {
+            overrides.add("resources");
+        }
+        if (StringUtils.isNotBlank(step.getRevision())) {
+            overrides.add("revision");
+        }
+        if (StringUtils.isNotBlank(step.getManifests())) {
+            overrides.add("manifests");
+        }
+        if (StringUtils.isNotBlank(step.getSyncStrategy())) {
+            overrides.add("syncStrategy");
+        }
+        if (StringUtils.isNotBlank(step.getSyncOptions())) {
+            overrides.add("syncOptions");
+        }
+        if (overrides.isEmpty()) {
+            return true;
+        }
+        ListenerUtil.println(getContext().get(TaskListener.class), "Not checking whether the application is " +
+                "already synced, the sync request overrides " + String.join(", ", overrides));
+        return false;
+    }
+
+    private ManifestDocuments getManifests() throws IOException, InterruptedException {
+        FilePath workspace = getContext().get(FilePath.class);
+        if (workspace == null) {
+            throw new AbortException("Syncing manifests requires a workspace, use the step inside a node block");
+        }
+        long sizeLimit = PluginConfiguration.get().getManifestSizeLimit() * 1024L * 1024L;
+        ManifestDocuments manifests = ManifestDocuments.find(workspace, step.getManifests(), sizeLimit);
+        ListenerUtil.println(getContext().get(TaskListener.class), String.format("Syncing rendered manifests " +
+                "from %d files, %d bytes", manifests.getFileCount(), manifests.getSize()));
+        return manifests;
+    }
+
+    private SyncStrategyType getSyncStrategy() throws IOException, InterruptedException {
+        if (StringUtils.isBlank(step.getSyncStrategy())) {
+            return getArgoCDConnection().getSyncStrategy();
+        }
+        try {
+            return SyncStrategyType.fromValue(step.getSyncStrategy());
+        } catch (IllegalArgumentException exception) {
+            throw new AbortException(exception.getMessage());
+        }
+    }
+
+    // Step options replace the connection default options, blank options like the empty form field are unset
+    private List<String> getSyncOptions() throws IOException, InterruptedException {
+        String syncOptions = StringUtils.isBlank(step.getSyncOptions()) ? getArgoCDConnection().getSyncOptions() :
+                step.getSyncOptions();
+        try {
+            return SyncOptionsUtil.parseSyncOptions(syncOptions);
+        } catch (IllegalArgumentException exception) {
+            throw new AbortException(exception.getMessage());
+        }
+    }
+
+    private List<SyncResource> getResources() throws AbortException {
+        try {
+            return SyncResourceUtil.parseResources(step.getResources());
+        } catch (IllegalArgumentException exception) {
+            throw new AbortException(exception.getMessage());
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.entigo.pipeline.util.FormValidationUtil;
+import org.apache.commons.lang.StringUtils;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Application created or updated by upsertArgoApps, values that aren't set are taken from the step.
+ */
+public class UpsertApplication extends AbstractDescribableImpl<UpsertApplication> {
+
+    private final String name;
+    private String path;
+    private String repoUrl;
+    private String targetRevision;
+    private String namespace;
+
+    @DataBoundConstructor
+    public UpsertApplication(@CheckForNull String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @DataBoundSetter
+    public void setPath(String path) {
+        this.path = StringUtils.stripToNull(path);
+    }
+
+    public String getRepoUrl() {
+        return repoUrl;
+    }
+
+    @DataBoundSetter
+    public void setRepoUrl(String repoUrl) {
+        this.repoUrl = StringUtils.stripToNull(repoUrl);
+    }
+
+    public String getTargetRevision() {
+        return targetRevision;
+    }
+
+    @DataBoundSetter
+    public void setTargetRevision(String targetRevision) {
+        this.targetRevision = StringUtils.stripToNull(targetRevision);
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    @DataBoundSetter
+    public void setNamespace(String namespace) {
+        this.namespace = StringUtils.stripToNull(namespace);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<UpsertApplication> {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Upserted application";
+        }
+
+        public FormValidation doCheckName(@QueryParameter String value) {
+            return FormValidationUtil.doCheckRequiredField(value, "Application name is required");
+        }
+    }
+}
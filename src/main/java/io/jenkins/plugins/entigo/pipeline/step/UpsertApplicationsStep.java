@@ -0,0 +1,162 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import com.google.common.collect.ImmutableSet;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.entigo.pipeline.util.FormValidationUtil;
+import io.jenkins.plugins.entigo.pipeline.util.LabelUtil;
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.*;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class UpsertApplicationsStep extends RequestStep {
+
+    private static final String DEFAULT_PROJECT_NAME = "default";
+    private static final String DEFAULT_CLUSTER_URL = "https://kubernetes.default.svc";
+
+    private final List<UpsertApplication> applications;
+    private String projectName = DEFAULT_PROJECT_NAME;
+    private String repoUrl;
+    private String targetRevision;
+    private String clusterUrl = DEFAULT_CLUSTER_URL;
+    private String namespace;
+    private String labels;
+    private int maxParallel = 4;
+    private boolean sync = false;
+
+    @DataBoundConstructor
+    public UpsertApplicationsStep(@CheckForNull List<UpsertApplication> applications) {
+        this.applications = applications == null ? Collections.emptyList() : applications;
+    }
+
+    public List<UpsertApplication> getApplications() {
+        return applications;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    /**
+     * Blank keeps the default project, like an omitted parameter.
+     */
+    @DataBoundSetter
+    public void setProjectName(String projectName) {
+        this.projectName = StringUtils.defaultIfBlank(StringUtils.strip(projectName), DEFAULT_PROJECT_NAME);
+    }
+
+    public String getRepoUrl() {
+        return repoUrl;
+    }
+
+    @DataBoundSetter
+    public void setRepoUrl(String repoUrl) {
+        this.repoUrl = StringUtils.stripToNull(repoUrl);
+    }
+
+    public String getTargetRevision() {
+        return targetRevision;
+    }
+
+    @DataBoundSetter
+    public void setTargetRevision(String targetRevision) {
+        this.targetRevision = StringUtils.stripToNull(targetRevision);
+    }
+
+    public String getClusterUrl() {
+        return clusterUrl;
+    }
+
+    /**
+     * Blank keeps the in-cluster default, like an omitted parameter.
+     */
+    @DataBoundSetter
+    public void setClusterUrl(String clusterUrl) {
+        this.clusterUrl = StringUtils.defaultIfBlank(StringUtils.strip(clusterUrl), DEFAULT_CLUSTER_URL);
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    @DataBoundSetter
+    public void setNamespace(String namespace) {
+        this.namespace = StringUtils.stripToNull(namespace);
+    }
+
+    public String getLabels() {
+        return labels;
+    }
+
+    @DataBoundSetter
+    public void setLabels(String labels) {
+        this.labels = labels;
+    }
+
+    public int getMaxParallel() {
+        return maxParallel;
+    }
+
+    @DataBoundSetter
+    public void setMaxParallel(int maxParallel) {
+        this.maxParallel = maxParallel;
+    }
+
+    public boolean isSync() {
+        return sync;
+    }
+
+    @DataBoundSetter
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    @Override
+    public StepExecution start(StepContext stepContext) {
+        return new UpsertApplicationsStepExecution(stepContext, this);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends RequestStepDescriptor {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Create or update ArgoCD applications";
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(TaskListener.class, Run.class, EnvVars.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "upsertArgoApps";
+        }
+
+        public FormValidation doCheckMaxParallel(@QueryParameter String value) {
+            return FormValidationUtil.doCheckNumber(value, 1L, 100L);
+        }
+
+        public FormValidation doCheckLabels(@QueryParameter String value) {
+            try {
+                LabelUtil.parseLabels(value);
+                return FormValidation.ok();
+            } catch (IllegalArgumentException exception) {
+                return FormValidation.error(exception.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.jenkins.plugins.entigo.pipeline.step;
+
+import hudson.AbortException;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.argocd.ArgoCDMapper;
+import io.jenkins.plugins.entigo.pipeline.argocd.config.ArgoCDConnection;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.Application;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.ApplicationSyncRequest;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.ArgoCDService;
+import io.jenkins.plugins.entigo.pipeline.argocd.service.DependencyScheduler;
+import io.jenkins.plugins.entigo.pipeline.util.LabelUtil;
+import io.jenkins.plugins.entigo.pipeline.util.ListenerUtil;
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class UpsertApplicationsStepExecution extends RequestStepExecution<Map<String, String>> {
+
+    private static final long serialVersionUID = 1;
+
+    private final transient UpsertApplicationsStep step;
+
+    protected UpsertApplicationsStepExecution(@Nonnull StepContext context, UpsertApplicationsStep step) {
+        super(context, step);
+        this.step = step;
+    }
+
+    @Override
+    protected Map<String, String> run() throws Exception {
+        TaskListener listener = getContext().get(TaskListener.class);
+        Map<String, String> labels;
+        try {
+            labels = LabelUtil.parseLabels(step.getLabels());
+        } catch (IllegalArgumentException exception) {
+            throw new AbortException(exception.getMessage());
+        }
+        Map<String, Application> applications = getApplications(labels);
+        ArgoCDConnection connection = getArgoCDConnection();
+        // No dependencies, the scheduler only limits the parallelism
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        for (String name : applications.keySet()) {
+            dependencies.put(name, Collections.emptyList());
+        }
+        ListenerUtil.println(listener, String.format("Creating or updating %d ArgoCD applications, max parallel: " +
+                "%d, sync: %s", applications.size(), step.getMaxParallel(), step.isSync()));
+        DependencyScheduler scheduler = new DependencyScheduler(listener, dependencies, step.getMaxParallel(), false);
+        scheduler.run(name -> upsertApplication(connection, applications.get(name)));
+        List<String> failures = scheduler.getFailures();
+        if (!failures.isEmpty()) {
+            throw new AbortException("Upserting failed for applications: " + String.join(", ", failures));
+        }
+        return scheduler.getResultNames();
+    }
+
+    private Map<String, Application> getApplications(Map<String, String> labels) throws AbortException {
+        if (step.getApplications().isEmpty()) {
+            throw new AbortException("At least one application is required");
+        }
+        ArgoCDMapper mapper = ArgoCDMapper.get();
+        Map<String, Application> applications = new LinkedHashMap<>();
+        for (UpsertApplication application : step.getApplications()) {
+            String name = application.getName();
+            if (StringUtils.isBlank(name)) {
+                throw new AbortException("Application name is required");
+            }
+            String repoUrl = getValue(application.getRepoUrl(), step.getRepoUrl(), "repoUrl", name);
+            String targetRevision = getValue(application.getTargetRevision(), step.getTargetRevision(),
+                    "targetRevision", name);
+            String namespace = getValue(application.getNamespace(), step.getNamespace(), "namespace", name);
+            String path = getValue(application.getPath(), null, "path", name);
+            Application mapped = mapper.createApplication(name, step.getProjectName(), repoUrl, path,
+                    targetRevision, step.getClusterUrl(), namespace, labels);
+            if (applications.put(name, mapped) != null) {
+                throw new AbortException("Duplicate application " + name);
+            }
+        }
+        return applications;
+    }
+
+    private String getValue(String value, String defaultValue, String field, String applicationName)
+            throws AbortException {
+        String result = value == null ? defaultValue : value;
+        if (result == null) {
+            throw new AbortException(String.format("Application %s is missing %s", applicationName, field));
+        }
+        return result;
+    }
+
+    // Upsert and sync of one application run through one service
+    private CompletableFuture<Void> upsertApplication(ArgoCDConnection connection, Application application)
+            throws IOException, InterruptedException {
+        ArgoCDService service = createArgoCDService(connection);
+        ApplicationSyncRequest syncRequest;
+        try {
+            syncRequest = step.isSync() ?
+                    createSyncRequest(service, connection, application.getMetadata().getName()) : null;
+        } catch (IOException exception) {
+            releaseArgoCDService(service);
+            throw exception;
+        }
+        return releaseWhenDone(service, service.upsertApplicationAsync(application).thenCompose(upserted ->
+                syncRequest == null ? CompletableFuture.<Void>completedFuture(null) :
+                        syncAndWaitAsync(service, syncRequest)));
+    }
+}
@@ -39,4 +39,15 @@ public class FormValidationUtil {
         return FormValidation.ok();
     }
 
-}
+    public static FormValidation doCheckNumber(String value, Long lowerLimit, Long upperLimit) {
+        try {
+            long number = Long.parseLong(value);
+            if (number < lowerLimit || number > upperLimit) {
+                return FormValidation.error(String.format("Value must be between %d and %d", lowerLimit, upperLimit));
+            }
+        } catch (NumberFormatException exception) {
+            return FormValidation.error("Value must be a number");
+        }
+        return FormValidation.ok();
+    }
+}
\ No newline at end of file
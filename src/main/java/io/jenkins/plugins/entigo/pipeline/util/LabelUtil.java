@@ -0,0 +1,37 @@
+package io.jenkins.plugins.entigo.pipeline.util;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LabelUtil {
+
+    private LabelUtil() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param labels Kubernetes labels like app.kubernetes.io/part-of=shop, separated by commas or new lines
+     * @return empty map when no labels are given
+     * @throws IllegalArgumentException when a label is not in KEY=VALUE format
+     */
+    public static Map<String, String> parseLabels(String labels) {
+        Map<String, String> labelMap = new LinkedHashMap<>();
+        if (StringUtils.isBlank(labels)) {
+            return labelMap;
+        }
+        for (String label : labels.split("[,\\n]")) {
+            if (StringUtils.isNotBlank(label)) {
+                String trimmed = label.trim();
+                int separator = trimmed.indexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException(String.format("Invalid label %s, expected KEY=VALUE, " +
+                            "e.g. preview=pr-123", trimmed));
+                }
+                labelMap.put(trimmed.substring(0, separator).trim(), trimmed.substring(separator + 1).trim());
+            }
+        }
+        return labelMap;
+    }
+}
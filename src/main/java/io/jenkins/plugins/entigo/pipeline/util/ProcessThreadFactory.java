@@ -0,0 +1,66 @@
+package io.jenkins.plugins.entigo.pipeline.util;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates threads for the ArgoCD processes and watch streams. When enabled and running on Java 21 or newer,
+ * creates virtual threads, which don't reserve a platform thread stack while blocking, otherwise daemon threads.
+ */
+public class ProcessThreadFactory implements ThreadFactory {
+
+    private static final Logger LOGGER = Logger.getLogger(ProcessThreadFactory.class.getName());
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+    private static volatile boolean virtualThreads = false;
+
+    private final String name;
+    private final ThreadFactory platformThreadFactory;
+
+    public ProcessThreadFactory(String name) {
+        this.name = name;
+        this.platformThreadFactory = new NamingThreadFactory(new DaemonThreadFactory(), name);
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    public static boolean isVirtualThreads() {
+        return virtualThreads && isVirtualThreadsSupported();
+    }
+
+    /**
+     * Affects only the threads created after the change, existing pooled threads are used until they time out.
+     */
+    public static void setVirtualThreads(boolean virtualThreads) {
+        ProcessThreadFactory.virtualThreads = virtualThreads;
+        if (virtualThreads && !isVirtualThreadsSupported()) {
+            LOGGER.info("Virtual threads require Java 21 or newer, using platform threads");
+        }
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        if (isVirtualThreads()) {
+            Thread thread = VIRTUAL_THREAD_FACTORY.newThread(runnable);
+            thread.setName(name + " (virtual)");
+            return thread;
+        }
+        return platformThreadFactory.newThread(runnable);
+    }
+
+    // Plugin is built for Java 8, Thread.ofVirtual() is only available through reflection
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException exception) {
+            LOGGER.log(Level.FINE, "Virtual threads are not supported", exception);
+            return null;
+        }
+    }
+}
@@ -23,4 +23,18 @@ public class ProcessingExceptionUtil {
         }
         return exception.getMessage();
     }
+
+    /**
+     * @return first exception of the given type in the cause chain, null when there is none
+     */
+    public static <T extends Throwable> T findCause(Throwable exception, Class<T> type) {
+        Throwable cause = exception;
+        while (cause != null) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+            cause = cause.getCause() == cause ? null : cause.getCause();
+        }
+        return null;
+    }
 }
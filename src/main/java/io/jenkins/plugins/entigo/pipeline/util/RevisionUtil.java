@@ -0,0 +1,28 @@
+package io.jenkins.plugins.entigo.pipeline.util;
+
+import java.util.regex.Pattern;
+
+public class RevisionUtil {
+
+    private static final Pattern COMMIT_SHA = Pattern.compile("^[0-9a-fA-F]{40}$");
+
+    private RevisionUtil() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * ArgoCD reports the resolved commit SHA, so branches and tags can't be compared with the synced revision. Only
+     * full SHAs are compared, shortened ones can't be told apart from numeric tags.
+     */
+    public static boolean isCommitSha(String revision) {
+        return revision != null && COMMIT_SHA.matcher(revision).matches();
+    }
+
+    /**
+     * @param expected full commit SHA
+     * @param actual revision reported by ArgoCD
+     */
+    public static boolean matches(String expected, String actual) {
+        return expected.equalsIgnoreCase(actual);
+    }
+}
@@ -0,0 +1,37 @@
+package io.jenkins.plugins.entigo.pipeline.util;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SyncOptionsUtil {
+
+    private SyncOptionsUtil() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param syncOptions ArgoCD sync options like ApplyOutOfSyncOnly=true, separated by commas or new lines
+     * @return empty list when no options are given
+     * @throws IllegalArgumentException when an option is not in KEY=VALUE format
+     */
+    public static List<String> parseSyncOptions(String syncOptions) {
+        List<String> options = new ArrayList<>();
+        if (StringUtils.isBlank(syncOptions)) {
+            return options;
+        }
+        for (String option : syncOptions.split("[,\\n]")) {
+            if (StringUtils.isNotBlank(option)) {
+                String trimmed = option.trim();
+                int separator = trimmed.indexOf('=');
+                if (separator <= 0 || separator == trimmed.length() - 1) {
+                    throw new IllegalArgumentException(String.format("Invalid sync option %s, expected KEY=VALUE, " +
+                            "e.g. ApplyOutOfSyncOnly=true", trimmed));
+                }
+                options.add(trimmed);
+            }
+        }
+        return options;
+    }
+}
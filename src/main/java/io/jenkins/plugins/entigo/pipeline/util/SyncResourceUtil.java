@@ -0,0 +1,80 @@
+package io.jenkins.plugins.entigo.pipeline.util;
+
+import io.jenkins.plugins.entigo.pipeline.argocd.model.ResourceStatus;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.SyncResource;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resources use the ArgoCD CLI format GROUP:KIND:NAME or GROUP:KIND:NAMESPACE/NAME, group is empty for core kinds.
+ */
+public class SyncResourceUtil {
+
+    private SyncResourceUtil() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param resources separated by commas or new lines
+     * @return empty list when no resources are given
+     * @throws IllegalArgumentException when a resource doesn't match the format
+     */
+    public static List<SyncResource> parseResources(String resources) {
+        List<SyncResource> syncResources = new ArrayList<>();
+        if (StringUtils.isBlank(resources)) {
+            return syncResources;
+        }
+        for (String resource : resources.split("[,\\n]")) {
+            if (StringUtils.isNotBlank(resource)) {
+                syncResources.add(parseResource(resource.trim()));
+            }
+        }
+        return syncResources;
+    }
+
+    private static SyncResource parseResource(String resource) {
+        String[] parts = resource.split(":", -1);
+        if (parts.length != 3 || StringUtils.isBlank(parts[1]) || StringUtils.isBlank(parts[2])) {
+            throw new IllegalArgumentException(String.format("Invalid resource %s, expected GROUP:KIND:NAME or " +
+                    "GROUP:KIND:NAMESPACE/NAME", resource));
+        }
+        SyncResource syncResource = new SyncResource();
+        syncResource.setGroup(parts[0]);
+        syncResource.setKind(parts[1]);
+        String name = parts[2];
+        int namespaceEnd = name.indexOf('/');
+        if (namespaceEnd >= 0) {
+            syncResource.setNamespace(name.substring(0, namespaceEnd));
+            name = name.substring(namespaceEnd + 1);
+        }
+        if (StringUtils.isBlank(name)) {
+            throw new IllegalArgumentException("Resource name is missing: " + resource);
+        }
+        syncResource.setName(name);
+        return syncResource;
+    }
+
+    /**
+     * Namespace is only compared when the selected resource has one.
+     */
+    public static boolean matches(SyncResource selected, ResourceStatus resource) {
+        return StringUtils.defaultString(selected.getGroup()).equals(StringUtils.defaultString(resource.getGroup())) &&
+                selected.getKind().equals(resource.getKind()) &&
+                selected.getName().equals(resource.getName()) &&
+                (StringUtils.isEmpty(selected.getNamespace()) || selected.getNamespace().equals(resource.getNamespace()));
+    }
+
+    public static boolean isSelected(List<SyncResource> selected, ResourceStatus resource) {
+        if (selected == null || selected.isEmpty()) {
+            return true;
+        }
+        for (SyncResource syncResource : selected) {
+            if (matches(syncResource, resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,123 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.cleanup;
+
+import io.jenkins.plugins.entigo.pipeline.argocd.model.Application;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.ApplicationStatus;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.MetaData;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.OperationState;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ApplicationCleanerTest {
+
+    private static final LocalDateTime STALE_BEFORE = LocalDateTime.of(2020, 11, 1, 12, 0);
+
+    @Test
+    public void isStale_CreatedBeforeWithoutOperations_ShouldBeStale() {
+        Application application = application(STALE_BEFORE.minusHours(1), null, null);
+
+        assertTrue(ApplicationCleaner.isStale(application, STALE_BEFORE));
+    }
+
+    @Test
+    public void isStale_CreatedAfter_ShouldNotBeStale() {
+        Application application = application(STALE_BEFORE.plusMinutes(1), null, null);
+
+        assertFalse(ApplicationCleaner.isStale(application, STALE_BEFORE));
+    }
+
+    @Test
+    public void isStale_CreatedAtLimit_ShouldNotBeStale() {
+        Application application = application(STALE_BEFORE, null, null);
+
+        assertFalse(ApplicationCleaner.isStale(application, STALE_BEFORE));
+    }
+
+    @Test
+    public void isStale_OperationFinishedAfter_ShouldNotBeStale() {
+        Application application = application(STALE_BEFORE.minusDays(30), STALE_BEFORE.plusHours(1), null);
+
+        assertFalse(ApplicationCleaner.isStale(application, STALE_BEFORE));
+    }
+
+    @Test
+    public void isStale_OperationFinishedBefore_ShouldBeStale() {
+        Application application = application(STALE_BEFORE.minusDays(30), STALE_BEFORE.minusDays(1), null);
+
+        assertTrue(ApplicationCleaner.isStale(application, STALE_BEFORE));
+    }
+
+    @Test
+    public void isStale_OperationStateWithoutFinish_ShouldUseCreation() {
+        Application application = application(STALE_BEFORE.minusDays(30), null, null);
+        application.getStatus().setOperationState(new OperationState());
+
+        assertTrue(ApplicationCleaner.isStale(application, STALE_BEFORE));
+    }
+
+    @Test
+    public void isStale_BeingDeleted_ShouldNotBeStale() {
+        Application application = application(STALE_BEFORE.minusDays(30), null, STALE_BEFORE.minusDays(1));
+
+        assertFalse(ApplicationCleaner.isStale(application, STALE_BEFORE));
+    }
+
+    @Test
+    public void isStale_NoCreationTimestamp_ShouldNotBeStale() {
+        Application application = application(null, null, null);
+
+        assertFalse(ApplicationCleaner.isStale(application, STALE_BEFORE));
+    }
+
+    @Test
+    public void isStale_NoStatus_ShouldUseCreation() {
+        Application application = application(STALE_BEFORE.minusDays(1), null, null);
+        application.setStatus(null);
+
+        assertTrue(ApplicationCleaner.isStale(application, STALE_BEFORE));
+    }
+
+    @Test
+    public void acquire_FirstDelete_ShouldNotWait() throws Exception {
+        ApplicationCleaner.DeleteRateLimiter rateLimiter = new ApplicationCleaner.DeleteRateLimiter(1);
+        long start = System.nanoTime();
+
+        rateLimiter.acquire();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void acquire_FollowingDeletes_ShouldBeSpacedByInterval() throws Exception {
+        // 50 ms between deletes
+        ApplicationCleaner.DeleteRateLimiter rateLimiter = new ApplicationCleaner.DeleteRateLimiter(1200);
+        long start = System.nanoTime();
+
+        rateLimiter.acquire();
+        rateLimiter.acquire();
+        rateLimiter.acquire();
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    private static Application application(LocalDateTime creationTimestamp, LocalDateTime finishedAt,
+                                           LocalDateTime deletionTimestamp) {
+        MetaData metadata = new MetaData();
+        metadata.setName("preview-app");
+        metadata.setCreationTimestamp(creationTimestamp);
+        metadata.setDeletionTimestamp(deletionTimestamp);
+        ApplicationStatus status = new ApplicationStatus();
+        if (finishedAt != null) {
+            OperationState operationState = new OperationState();
+            operationState.setFinishedAt(finishedAt);
+            status.setOperationState(operationState);
+        }
+        Application application = new Application();
+        application.setMetadata(metadata);
+        application.setStatus(status);
+        return application;
+    }
+}
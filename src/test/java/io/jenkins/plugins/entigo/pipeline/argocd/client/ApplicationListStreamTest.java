@@ -0,0 +1,137 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.Application;
+import io.jenkins.plugins.entigo.pipeline.rest.RetryableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Application list responses from a local stub server, the body is sent chunked so that a truncated body ends the
+ * response without an error on the HTTP level.
+ */
+public class ApplicationListStreamTest {
+
+    private volatile String body;
+    private HttpServer server;
+    private ArgoCDClient client;
+
+    @Before
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/applications", this::respondApplications);
+        server.start();
+        client = new ArgoCDClientImpl("http://localhost:" + server.getAddress().getPort(), "token", false);
+    }
+
+    @After
+    public void stopServer() {
+        client.close();
+        server.stop(0);
+    }
+
+    private void respondApplications(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void streamApplications_Items_ShouldReturnApplicationsInOrder() {
+        body = "{\"metadata\":{\"resourceVersion\":\"42\"},\"items\":[{\"metadata\":{\"name\":\"first\"}}," +
+                "{\"metadata\":{\"name\":\"second\"}}]}";
+
+        try (ApplicationListStream stream = client.streamApplications(null, null, null)) {
+            assertEquals("42", stream.getMetadata().getResourceVersion());
+            assertEquals(Arrays.asList("first", "second"), readNames(stream));
+        }
+    }
+
+    @Test
+    public void streamApplications_EmptyItems_ShouldHaveNoApplications() {
+        body = "{\"metadata\":{\"resourceVersion\":\"42\"},\"items\":[]}";
+
+        try (ApplicationListStream stream = client.streamApplications(null, null, null)) {
+            assertFalse(stream.hasNext());
+        }
+    }
+
+    @Test
+    public void streamApplications_NullItems_ShouldHaveNoApplications() {
+        // ArgoCD omits empty lists as null
+        body = "{\"metadata\":{\"resourceVersion\":\"42\"},\"items\":null}";
+
+        try (ApplicationListStream stream = client.streamApplications(null, null, null)) {
+            assertFalse(stream.hasNext());
+            assertEquals("42", stream.getMetadata().getResourceVersion());
+        }
+    }
+
+    @Test
+    public void streamApplications_UnknownTopLevelFields_ShouldBeSkipped() {
+        body = "{\"kind\":\"ApplicationList\",\"extra\":{\"nested\":[1,{\"items\":[]}]},\"metadata\":{}," +
+                "\"items\":[{\"metadata\":{\"name\":\"first\"}}],\"trailing\":[\"value\"]}";
+
+        try (ApplicationListStream stream = client.streamApplications(null, null, null)) {
+            assertEquals(Arrays.asList("first"), readNames(stream));
+        }
+    }
+
+    @Test
+    public void streamApplications_NoMetadata_ShouldHaveNullMetadata() {
+        body = "{\"items\":[{\"metadata\":{\"name\":\"first\"}}]}";
+
+        try (ApplicationListStream stream = client.streamApplications(null, null, null)) {
+            assertNull(stream.getMetadata());
+            assertEquals(Arrays.asList("first"), readNames(stream));
+        }
+    }
+
+    @Test
+    public void streamApplications_TruncatedInItems_ShouldThrowRetryableAfterReadItems() {
+        body = "{\"metadata\":{},\"items\":[{\"metadata\":{\"name\":\"first\"}},{\"metadata\":{\"na";
+
+        try (ApplicationListStream stream = client.streamApplications(null, null, null)) {
+            assertEquals("first", stream.next().getMetadata().getName());
+            assertThrows(RetryableException.class, stream::hasNext);
+            assertFalse(stream.hasNext());
+        }
+    }
+
+    @Test
+    public void streamApplications_TruncatedBeforeItems_ShouldThrowRetryable() {
+        body = "{\"metadata\":{\"resourceVer";
+
+        assertThrows(RetryableException.class, () -> client.streamApplications(null, null, null));
+    }
+
+    @Test
+    public void streamApplications_NotAnObject_ShouldThrowRetryable() {
+        body = "[]";
+
+        assertThrows(RetryableException.class, () -> client.streamApplications(null, null, null));
+    }
+
+    private static List<String> readNames(ApplicationListStream stream) {
+        List<String> names = new ArrayList<>();
+        while (stream.hasNext()) {
+            Application application = stream.next();
+            names.add(application.getMetadata().getName());
+        }
+        return names;
+    }
+}
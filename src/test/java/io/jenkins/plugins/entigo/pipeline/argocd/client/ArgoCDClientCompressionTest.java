@@ -0,0 +1,163 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.*;
+import io.jenkins.plugins.entigo.pipeline.rest.JacksonConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares transferred bytes and latency of application requests against a local stub server. The stub serves a
+ * pre-compressed body, so the latency difference is the decompression cost of the client.
+ */
+public class ArgoCDClientCompressionTest {
+
+    private static final String APPLICATION_NAME = "large-helm-app";
+    private static final int RESOURCE_COUNT = 2000;
+    private static final int ITERATIONS = 20;
+    // Loopback has no transfer cost to win back, decompression may add latency only within this allowance
+    private static final long LATENCY_ALLOWANCE_MILLIS = 20;
+
+    private final AtomicLong transferredBytes = new AtomicLong();
+    private ObjectMapper mapper;
+    private HttpServer server;
+    private byte[] plainBody;
+    private byte[] gzipBody;
+
+    @Before
+    public void startServer() throws IOException {
+        mapper = new JacksonConfiguration().getContext(Application.class);
+        plainBody = mapper.writeValueAsBytes(createApplication());
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(plainBody);
+        }
+        gzipBody = compressed.toByteArray();
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/applications/" + APPLICATION_NAME, this::respond);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        byte[] body = plainBody;
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            body = gzipBody;
+        }
+        // Counted before sending so that the client can't receive the response before it's counted
+        transferredBytes.addAndGet(body.length);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    @Test
+    public void getApplication_WithCompression_ShouldTransferLessBytes() throws Exception {
+        Result plain = requestApplications(false);
+        Result compressed = requestApplications(true);
+
+        assertTrue("compressed responses must be smaller", compressed.bytes < plain.bytes);
+        assertTrue("compressed responses must be at least 5 times smaller",
+                compressed.bytes * 5 < plain.bytes);
+    }
+
+    @Test
+    public void getApplication_WithCompression_ShouldNotAddNoticeableLatency() throws Exception {
+        Result plain = requestApplications(false);
+        Result compressed = requestApplications(true);
+
+        long plainMillis = TimeUnit.NANOSECONDS.toMillis(plain.nanos / ITERATIONS);
+        long compressedMillis = TimeUnit.NANOSECONDS.toMillis(compressed.nanos / ITERATIONS);
+        assertTrue(String.format("compressed request took %d ms, uncompressed %d ms", compressedMillis, plainMillis),
+                compressedMillis <= 2 * plainMillis + LATENCY_ALLOWANCE_MILLIS);
+    }
+
+    @Test
+    public void getApplication_WithCompression_ShouldDecodeSameApplication() throws Exception {
+        Result compressed = requestApplications(true);
+
+        assertEquals(mapper.readTree(plainBody), mapper.valueToTree(compressed.application));
+    }
+
+    private Result requestApplications(boolean compression) throws Exception {
+        String uri = "http://localhost:" + server.getAddress().getPort();
+        ArgoCDClient client = new ArgoCDClientImpl(uri, "token", false, compression);
+        try {
+            // Warm up the client and the json mapper before measuring
+            client.getApplication(APPLICATION_NAME, null);
+            transferredBytes.set(0);
+            Application application = null;
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                application = client.getApplication(APPLICATION_NAME, null);
+                assertEquals(RESOURCE_COUNT, application.getStatus().getResources().size());
+            }
+            long nanos = System.nanoTime() - start;
+            return new Result(transferredBytes.get(), nanos, application);
+        } finally {
+            client.close();
+        }
+    }
+
+    private Application createApplication() {
+        List<ResourceStatus> resources = new ArrayList<>();
+        for (int i = 0; i < RESOURCE_COUNT; i++) {
+            ResourceStatus resource = new ResourceStatus();
+            resource.setGroup("apps");
+            resource.setVersion("v1");
+            resource.setKind("Deployment");
+            resource.setNamespace("default");
+            resource.setName("deployment-" + i);
+            resource.setStatus(Sync.SYNCED.getStatus());
+            HealthStatus health = new HealthStatus();
+            health.setStatus(Health.HEALTHY.getStatus());
+            resource.setHealth(health);
+            resources.add(resource);
+        }
+        ApplicationStatus status = new ApplicationStatus();
+        status.setResources(resources);
+        Application application = new Application();
+        MetaData metaData = new MetaData();
+        metaData.setName(APPLICATION_NAME);
+        application.setMetadata(metaData);
+        application.setStatus(status);
+        return application;
+    }
+
+    private static class Result {
+
+        private final long bytes;
+        private final long nanos;
+        private final Application application;
+
+        private Result(long bytes, long nanos, Application application) {
+            this.bytes = bytes;
+            this.nanos = nanos;
+            this.application = application;
+        }
+    }
+}
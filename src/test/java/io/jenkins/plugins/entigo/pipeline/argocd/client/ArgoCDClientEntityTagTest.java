@@ -0,0 +1,129 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.Application;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.ApplicationSyncRequest;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.MetaData;
+import io.jenkins.plugins.entigo.pipeline.rest.JacksonConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Conditional application requests against a local stub server that answers matching If-None-Match headers with
+ * 304 Not Modified.
+ */
+public class ArgoCDClientEntityTagTest {
+
+    private static final String APPLICATION_NAME = "cached-app";
+    private static final String ENTITY_TAG = "\"v1\"";
+
+    private final List<String> receivedEntityTags = new CopyOnWriteArrayList<>();
+    private volatile boolean sendEntityTag = true;
+    private byte[] body;
+    private HttpServer server;
+    private ArgoCDClient client;
+
+    @Before
+    public void startServer() throws Exception {
+        ObjectMapper mapper = new JacksonConfiguration().getContext(Application.class);
+        Application application = new Application();
+        MetaData metaData = new MetaData();
+        metaData.setName(APPLICATION_NAME);
+        application.setMetadata(metaData);
+        body = mapper.writeValueAsBytes(application);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/applications/" + APPLICATION_NAME, this::respondApplication);
+        server.createContext("/api/v1/applications/" + APPLICATION_NAME + "/sync", this::respondSync);
+        server.start();
+        client = new ArgoCDClientImpl("http://localhost:" + server.getAddress().getPort(), "token", false);
+    }
+
+    @After
+    public void stopServer() {
+        client.close();
+        server.stop(0);
+    }
+
+    private void respondApplication(HttpExchange exchange) throws IOException {
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            respond(exchange, 200, "{}".getBytes());
+            return;
+        }
+        String entityTag = exchange.getRequestHeaders().getFirst("If-None-Match");
+        receivedEntityTags.add(entityTag == null ? "" : entityTag);
+        if (sendEntityTag) {
+            exchange.getResponseHeaders().add("ETag", ENTITY_TAG);
+            if (ENTITY_TAG.equals(entityTag)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        respond(exchange, 200, body);
+    }
+
+    private void respondSync(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, body);
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] responseBody) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, responseBody.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(responseBody);
+        }
+    }
+
+    @Test
+    public void getApplication_NotModified_ShouldReturnCachedApplication() {
+        Application first = client.getApplication(APPLICATION_NAME, null);
+        Application second = client.getApplication(APPLICATION_NAME, null);
+
+        assertSame(first, second);
+        assertEquals("", receivedEntityTags.get(0));
+        assertEquals(ENTITY_TAG, receivedEntityTags.get(1));
+    }
+
+    @Test
+    public void getApplication_WithoutEntityTag_ShouldNotCache() {
+        sendEntityTag = false;
+
+        Application first = client.getApplication(APPLICATION_NAME, null);
+        Application second = client.getApplication(APPLICATION_NAME, null);
+
+        assertNotSame(first, second);
+        assertEquals("", receivedEntityTags.get(0));
+        assertEquals("", receivedEntityTags.get(1));
+    }
+
+    @Test
+    public void getApplication_AfterSync_ShouldRequestFullApplication() {
+        Application first = client.getApplication(APPLICATION_NAME, null);
+        client.syncApplication(APPLICATION_NAME, new ApplicationSyncRequest());
+        Application second = client.getApplication(APPLICATION_NAME, null);
+
+        assertNotSame(first, second);
+        assertEquals("", receivedEntityTags.get(1));
+    }
+
+    @Test
+    public void getApplication_AfterDelete_ShouldRequestFullApplication() {
+        client.getApplication(APPLICATION_NAME, null);
+        client.deleteApplication(APPLICATION_NAME, true);
+        client.getApplication(APPLICATION_NAME, null);
+
+        assertEquals("", receivedEntityTags.get(1));
+    }
+}
@@ -0,0 +1,50 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.client;
+
+import org.junit.Test;
+
+import javax.ws.rs.core.EntityTag;
+
+import static org.junit.Assert.*;
+
+public class EntityTagCacheTest {
+
+    @Test
+    public void put_AtCapacity_ShouldEvictLeastRecentlyUsed() {
+        EntityTagCache<String> cache = new EntityTagCache<>(2);
+        cache.put("first", new EntityTag("1"), "first value");
+        cache.put("second", new EntityTag("2"), "second value");
+        // Reading makes the first entry the most recently used
+        assertEquals("first value", cache.get("first").getValue());
+
+        cache.put("third", new EntityTag("3"), "third value");
+
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertEquals(new EntityTag("3"), cache.get("third").getEntityTag());
+    }
+
+    @Test
+    public void put_ExistingKey_ShouldReplaceEntry() {
+        EntityTagCache<String> cache = new EntityTagCache<>(2);
+        cache.put("key", new EntityTag("1"), "old value");
+
+        cache.put("key", new EntityTag("2"), "new value");
+
+        assertEquals("new value", cache.get("key").getValue());
+        assertEquals(new EntityTag("2"), cache.get("key").getEntityTag());
+    }
+
+    @Test
+    public void removeIf_MatchingKeys_ShouldRemoveOnlyThem() {
+        EntityTagCache<String> cache = new EntityTagCache<>(10);
+        cache.put("app/", new EntityTag("1"), "app");
+        cache.put("app/project", new EntityTag("2"), "app in project");
+        cache.put("app-other/", new EntityTag("3"), "other app");
+
+        cache.removeIf(key -> key.startsWith("app/"));
+
+        assertNull(cache.get("app/"));
+        assertNull(cache.get("app/project"));
+        assertNotNull(cache.get("app-other/"));
+    }
+}
@@ -0,0 +1,171 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.process;
+
+import io.jenkins.plugins.entigo.pipeline.argocd.model.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ApplicationTreeTest {
+
+    @Test
+    public void update_RootWithChildren_ShouldDiscoverChildren() {
+        ApplicationTree tree = new ApplicationTree("root");
+
+        List<String> discovered = tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "backend", "frontend"));
+
+        assertEquals(new HashSet<>(Arrays.asList("backend", "frontend")), new HashSet<>(discovered));
+        assertEquals(new HashSet<>(discovered), tree.getChildren());
+        assertTrue(tree.contains("backend"));
+        assertFalse(tree.isReady());
+    }
+
+    @Test
+    public void update_OtherResources_ShouldBeIgnored() {
+        ApplicationTree tree = new ApplicationTree("root");
+        Application root = application("root", Sync.SYNCED, Health.HEALTHY, "backend");
+        root.getStatus().getResources().add(resource("apps", "Deployment", "server"));
+        root.getStatus().getResources().add(resource("argoproj.io", "Application", "root"));
+
+        assertEquals(Collections.singletonList("backend"), tree.update(root));
+    }
+
+    @Test
+    public void update_NestedChildren_ShouldDiscoverRecursively() {
+        ApplicationTree tree = new ApplicationTree("root");
+        tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "platform"));
+
+        List<String> discovered = tree.update(application("platform", Sync.SYNCED, Health.HEALTHY, "monitoring"));
+
+        assertEquals(Collections.singletonList("monitoring"), discovered);
+        assertEquals(new HashSet<>(Arrays.asList("platform", "monitoring")), tree.getChildren());
+    }
+
+    @Test
+    public void update_KnownChildAgain_ShouldNotDiscoverItAgain() {
+        ApplicationTree tree = new ApplicationTree("root");
+        tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "backend"));
+
+        assertTrue(tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "backend")).isEmpty());
+    }
+
+    @Test
+    public void update_UnknownApplication_ShouldBeIgnored() {
+        ApplicationTree tree = new ApplicationTree("root");
+
+        assertTrue(tree.update(application("other", Sync.SYNCED, Health.HEALTHY, "backend")).isEmpty());
+        assertTrue(tree.getChildren().isEmpty());
+    }
+
+    @Test
+    public void update_ChildRemovedFromParent_ShouldRemoveChildAndItsChildren() {
+        ApplicationTree tree = new ApplicationTree("root");
+        tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "platform", "backend"));
+        tree.update(application("platform", Sync.SYNCED, Health.HEALTHY, "monitoring"));
+
+        tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "backend"));
+
+        assertEquals(Collections.singleton("backend"), tree.getChildren());
+        assertFalse(tree.contains("platform"));
+        assertFalse(tree.contains("monitoring"));
+    }
+
+    @Test
+    public void isReady_AllChildrenSyncedAndHealthy_ShouldBeReady() {
+        ApplicationTree tree = new ApplicationTree("root");
+        tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "backend", "frontend"));
+        tree.update(application("backend", Sync.SYNCED, Health.HEALTHY));
+        tree.update(application("frontend", Sync.OUT_OF_SYNC, Health.HEALTHY));
+
+        assertFalse(tree.isReady());
+        assertEquals("1/2 child applications ready, waiting for: frontend - OutOfSync, Healthy",
+                tree.getPendingStatus());
+
+        tree.update(application("frontend", Sync.SYNCED, Health.HEALTHY));
+
+        assertTrue(tree.isReady());
+    }
+
+    @Test
+    public void isReady_ChildOperationRunning_ShouldNotBeReady() {
+        ApplicationTree tree = new ApplicationTree("root");
+        tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "backend"));
+        Application backend = application("backend", Sync.SYNCED, Health.HEALTHY);
+        OperationState operationState = new OperationState();
+        operationState.setPhase(OperationPhase.RUNNING.getPhase());
+        backend.getStatus().setOperationState(operationState);
+
+        tree.update(backend);
+
+        assertFalse(tree.isReady());
+        assertEquals("0/1 child applications ready, waiting for: backend - operation in progress",
+                tree.getPendingStatus());
+    }
+
+    @Test
+    public void isReady_ChildNotReceived_ShouldNotBeReady() {
+        ApplicationTree tree = new ApplicationTree("root");
+        tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "backend"));
+
+        assertFalse(tree.isReady());
+        assertEquals("0/1 child applications ready, waiting for: backend - not found", tree.getPendingStatus());
+    }
+
+    @Test
+    public void isReady_RemovedChildNotReady_ShouldBeReady() {
+        ApplicationTree tree = new ApplicationTree("root");
+        tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "backend", "legacy"));
+        tree.update(application("backend", Sync.SYNCED, Health.HEALTHY));
+        tree.update(application("legacy", Sync.OUT_OF_SYNC, Health.MISSING));
+
+        tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "backend"));
+
+        assertTrue(tree.isReady());
+    }
+
+    @Test
+    public void getSlowestChildren_ReadyChildren_ShouldListLastReadyFirst() throws Exception {
+        ApplicationTree tree = new ApplicationTree("root");
+        tree.update(application("root", Sync.SYNCED, Health.HEALTHY, "backend", "frontend"));
+        tree.update(application("backend", Sync.SYNCED, Health.HEALTHY));
+        Thread.sleep(5);
+        tree.update(application("frontend", Sync.SYNCED, Health.HEALTHY));
+
+        assertEquals("frontend (0 s)", tree.getSlowestChildren(1));
+        assertEquals("frontend (0 s), backend (0 s)", tree.getSlowestChildren(5));
+    }
+
+    private static Application application(String name, Sync sync, Health health, String... children) {
+        MetaData metadata = new MetaData();
+        metadata.setName(name);
+        SyncStatus syncStatus = new SyncStatus();
+        syncStatus.setStatus(sync.getStatus());
+        HealthStatus healthStatus = new HealthStatus();
+        healthStatus.setStatus(health.getStatus());
+        ApplicationStatus status = new ApplicationStatus();
+        status.setSync(syncStatus);
+        status.setHealth(healthStatus);
+        List<ResourceStatus> resources = new ArrayList<>();
+        for (String child : children) {
+            resources.add(resource("argoproj.io", "Application", child));
+        }
+        status.setResources(resources);
+        Application application = new Application();
+        application.setMetadata(metadata);
+        application.setStatus(status);
+        return application;
+    }
+
+    private static ResourceStatus resource(String group, String kind, String name) {
+        ResourceStatus resource = new ResourceStatus();
+        resource.setGroup(group);
+        resource.setKind(kind);
+        resource.setName(name);
+        return resource;
+    }
+}
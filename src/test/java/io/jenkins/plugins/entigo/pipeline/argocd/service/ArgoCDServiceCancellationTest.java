@@ -0,0 +1,207 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.service;
+
+import hudson.AbortException;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.entigo.pipeline.PluginConfiguration;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ArgoCDClient;
+import io.jenkins.plugins.entigo.pipeline.argocd.client.ArgoCDClientImpl;
+import io.jenkins.plugins.entigo.pipeline.argocd.process.ProcessExecutor;
+import io.jenkins.plugins.entigo.pipeline.argocd.process.WaitStrategy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Soak test for timed out application waits against a stub server which keeps the watch streams open without sending
+ * any events. Threads and connections of the timed out waits must be released.
+ */
+public class ArgoCDServiceCancellationTest {
+
+    private static final int WAITS = 2000;
+    private static final int PARALLEL_WAITS = 200;
+    private static final long WAIT_TIMEOUT = 1;
+    private static final long CLEANUP_TIMEOUT_MILLIS = 15000L;
+    private static final long CANCELLED_WAIT_TIMEOUT = 600;
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ExecutorService connectionHandlers = Executors.newCachedThreadPool();
+    private ServerSocket server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new ServerSocket(0, 1000, InetAddress.getLoopbackAddress());
+        connectionHandlers.execute(this::acceptConnections);
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        server.close();
+        connectionHandlers.shutdownNow();
+    }
+
+    private void acceptConnections() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connectionHandlers.execute(() -> holdStream(socket));
+            } catch (IOException exception) {
+                // Server closed
+            }
+        }
+    }
+
+    // Responds with a chunked stream and keeps it open until the client closes the connection
+    private void holdStream(Socket socket) {
+        openConnections.incrementAndGet();
+        totalConnections.incrementAndGet();
+        try (Socket connection = socket) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                    StandardCharsets.US_ASCII));
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                // Skips the request line and headers
+            }
+            OutputStream output = connection.getOutputStream();
+            output.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nTransfer-Encoding: chunked\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            while (reader.read() != -1) {
+                // Waits for the client to close the connection
+            }
+        } catch (IOException exception) {
+            // Client reset the connection
+        } finally {
+            openConnections.decrementAndGet();
+        }
+    }
+
+    @Test
+    public void waitApplicationStatus_TimedOutWaits_ShouldReleaseThreadsAndConnections() throws Exception {
+        PluginConfiguration.get().setProcessThreads(PARALLEL_WAITS);
+        PluginConfiguration.get().setProcessQueueSize(PARALLEL_WAITS);
+        ArgoCDClient client = new ArgoCDClientImpl("http://localhost:" + server.getLocalPort(), "token", false);
+        ExecutorService steps = Executors.newFixedThreadPool(PARALLEL_WAITS);
+        AtomicInteger timedOut = new AtomicInteger();
+        try {
+            List<Future<?>> waits = new ArrayList<>();
+            for (int i = 0; i < WAITS; i++) {
+                String applicationName = "application-" + i;
+                waits.add(steps.submit(() -> {
+                    ArgoCDService service = new ArgoCDService(client, TaskListener.NULL, WAIT_TIMEOUT,
+                            WaitStrategy.STREAM);
+                    try {
+                        service.waitApplicationStatus(service.createSyncRequest(applicationName,
+                                SyncStrategyType.HOOK, null), null, true);
+                    } catch (AbortException exception) {
+                        timedOut.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> wait : waits) {
+                wait.get();
+            }
+            assertEquals("every wait must time out", WAITS, timedOut.get());
+            assertTrue("streams must have been opened", totalConnections.get() >= WAITS);
+
+            long end = System.currentTimeMillis() + CLEANUP_TIMEOUT_MILLIS;
+            while (System.currentTimeMillis() < end && !isReleased()) {
+                Thread.sleep(100);
+            }
+            assertEquals("stream connections must be closed", 0, openConnections.get());
+            assertEquals("process threads must be idle", 0, ProcessExecutor.get().getActiveCount());
+            assertEquals("processes must not be queued", 0, ProcessExecutor.get().getQueuedCount());
+            assertEquals("stream readers must not be reading", 0, getReadingThreads());
+        } finally {
+            steps.shutdownNow();
+            client.close();
+        }
+    }
+
+    @Test
+    public void waitApplicationStatusAsync_CancelledWaits_ShouldReleaseThreadsAndConnections() throws Exception {
+        PluginConfiguration.get().setProcessThreads(PARALLEL_WAITS);
+        PluginConfiguration.get().setProcessQueueSize(PARALLEL_WAITS);
+        ArgoCDClient client = new ArgoCDClientImpl("http://localhost:" + server.getLocalPort(), "token", false);
+        try {
+            ArgoCDService service = new ArgoCDService(client, TaskListener.NULL, CANCELLED_WAIT_TIMEOUT,
+                    WaitStrategy.STREAM);
+            // All waits are started from the test thread
+            List<CompletableFuture<Void>> waits = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_WAITS; i++) {
+                waits.add(service.waitApplicationStatusAsync(service.createSyncRequest("application-" + i,
+                        SyncStrategyType.HOOK, null), null, true));
+            }
+            long end = System.currentTimeMillis() + CLEANUP_TIMEOUT_MILLIS;
+            while (System.currentTimeMillis() < end && totalConnections.get() < PARALLEL_WAITS) {
+                Thread.sleep(100);
+            }
+            assertTrue("streams must have been opened", totalConnections.get() >= PARALLEL_WAITS);
+            for (CompletableFuture<Void> wait : waits) {
+                assertFalse("wait must not finish before the timeout", wait.isDone());
+                wait.cancel(true);
+            }
+
+            end = System.currentTimeMillis() + CLEANUP_TIMEOUT_MILLIS;
+            while (System.currentTimeMillis() < end && !isReleased()) {
+                Thread.sleep(100);
+            }
+            assertEquals("stream connections must be closed", 0, openConnections.get());
+            assertEquals("process threads must be idle", 0, ProcessExecutor.get().getActiveCount());
+            assertEquals("stream readers must not be reading", 0, getReadingThreads());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void getApplication_StoppedService_ShouldAbort() throws Exception {
+        ArgoCDClient client = new ArgoCDClientImpl("http://localhost:" + server.getLocalPort(), "token", false);
+        try {
+            ArgoCDService service = new ArgoCDService(client, TaskListener.NULL, WAIT_TIMEOUT);
+            service.stop();
+            AbortException exception = assertThrows(AbortException.class,
+                    () -> service.getApplication("application", null));
+            assertEquals("ArgoCD service was stopped", exception.getMessage());
+            assertEquals("a stopped service must not open connections", 0, totalConnections.get());
+        } finally {
+            client.close();
+        }
+    }
+
+    private boolean isReleased() {
+        return openConnections.get() == 0 && ProcessExecutor.get().getActiveCount() == 0 && getReadingThreads() == 0;
+    }
+
+    // Idle pooled reader threads are waiting for a task, blocked socket reads are runnable
+    private int getReadingThreads() {
+        int reading = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("ArgoCD watch reader") && thread.getState() == Thread.State.RUNNABLE) {
+                reading++;
+            }
+        }
+        return reading;
+    }
+}
@@ -0,0 +1,221 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.service;
+
+import hudson.AbortException;
+import hudson.model.TaskListener;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DependencySchedulerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<Void> sleepAsync(long millis) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException exception) {
+                throw new CompletionException(exception);
+            }
+        }, executor);
+    }
+
+    @Test
+    public void constructor_UnknownDependency_ShouldThrow() {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("app", Collections.singletonList("missing"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new DependencyScheduler(TaskListener.NULL, dependencies, 1, false));
+
+        assertEquals("app depends on unknown application missing", exception.getMessage());
+    }
+
+    @Test
+    public void constructor_Cycle_ShouldThrowWithCycleApplications() {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("root", Collections.emptyList());
+        dependencies.put("a", Arrays.asList("root", "c"));
+        dependencies.put("b", Collections.singletonList("a"));
+        dependencies.put("c", Collections.singletonList("b"));
+        dependencies.put("leaf", Collections.singletonList("root"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new DependencyScheduler(TaskListener.NULL, dependencies, 1, false));
+
+        String prefix = "Dependencies have a cycle between applications: ";
+        assertTrue(exception.getMessage().startsWith(prefix));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")),
+                new HashSet<>(Arrays.asList(exception.getMessage().substring(prefix.length()).split(", "))));
+    }
+
+    @Test
+    public void constructor_SelfDependency_ShouldThrow() {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("app", Collections.singletonList("app"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new DependencyScheduler(TaskListener.NULL, dependencies, 1, false));
+    }
+
+    @Test
+    public void run_Dependencies_ShouldStartTasksAfterTheirDependencies() throws Exception {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("app", Arrays.asList("database", "config"));
+        dependencies.put("database", Collections.emptyList());
+        dependencies.put("config", Collections.emptyList());
+        Set<String> finished = ConcurrentHashMap.newKeySet();
+        DependencyScheduler scheduler = new DependencyScheduler(TaskListener.NULL, dependencies, 4, false);
+
+        Map<String, TaskResult> results = scheduler.run(name -> {
+            if (name.equals("app")) {
+                assertTrue(finished.containsAll(dependencies.get("app")));
+            }
+            finished.add(name);
+            return CompletableFuture.completedFuture(null);
+        });
+
+        assertEquals(Arrays.asList("app", "database", "config"), new ArrayList<>(results.keySet()));
+        for (TaskResult result : results.values()) {
+            assertEquals(TaskResult.SUCCESS, result);
+        }
+        assertTrue(scheduler.getFailures().isEmpty());
+    }
+
+    @Test
+    public void run_MaxParallel_ShouldLimitRunningTasks() throws Exception {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) {
+            dependencies.put("app" + i, Collections.emptyList());
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        DependencyScheduler scheduler = new DependencyScheduler(TaskListener.NULL, dependencies, 2, false);
+
+        scheduler.run(name -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            return sleepAsync(20).whenComplete((value, throwable) -> running.decrementAndGet());
+        });
+
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void run_FailedDependency_ShouldSkipDependentsAndContinueOthers() throws Exception {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("database", Collections.emptyList());
+        dependencies.put("backend", Collections.singletonList("database"));
+        dependencies.put("frontend", Collections.singletonList("backend"));
+        dependencies.put("monitoring", Collections.emptyList());
+        Set<String> started = ConcurrentHashMap.newKeySet();
+        DependencyScheduler scheduler = new DependencyScheduler(TaskListener.NULL, dependencies, 1, false);
+
+        Map<String, TaskResult> results = scheduler.run(name -> {
+            started.add(name);
+            if (name.equals("database")) {
+                throw new AbortException("Sync failed");
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+
+        assertEquals(TaskResult.FAILED, results.get("database"));
+        assertEquals(TaskResult.SKIPPED, results.get("backend"));
+        assertEquals(TaskResult.SKIPPED, results.get("frontend"));
+        assertEquals(TaskResult.SUCCESS, results.get("monitoring"));
+        assertFalse(started.contains("backend"));
+        assertFalse(started.contains("frontend"));
+        assertEquals(Arrays.asList("database (Failed)", "backend (Skipped, a dependency didn't succeed)",
+                "frontend (Skipped, a dependency didn't succeed)"), scheduler.getFailures());
+    }
+
+    @Test
+    public void run_FailFast_ShouldCancelRunningAndPendingTasks() throws Exception {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("slow", Collections.emptyList());
+        dependencies.put("failing", Collections.emptyList());
+        dependencies.put("after", Collections.singletonList("slow"));
+        CompletableFuture<Void> slow = new CompletableFuture<>();
+        DependencyScheduler scheduler = new DependencyScheduler(TaskListener.NULL, dependencies, 2, true);
+
+        Map<String, TaskResult> results = scheduler.run(name -> {
+            if (name.equals("slow")) {
+                return slow;
+            }
+            CompletableFuture<Void> failing = new CompletableFuture<>();
+            failing.completeExceptionally(new IllegalStateException("Sync failed"));
+            return failing;
+        });
+
+        assertEquals(TaskResult.CANCELLED, results.get("slow"));
+        assertEquals(TaskResult.FAILED, results.get("failing"));
+        assertEquals(TaskResult.CANCELLED, results.get("after"));
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    public void run_Interrupted_ShouldCancelRunningTasks() {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("app", Collections.emptyList());
+        CompletableFuture<Void> running = new CompletableFuture<>();
+        DependencyScheduler scheduler = new DependencyScheduler(TaskListener.NULL, dependencies, 1, false);
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> scheduler.run(name -> running));
+
+        assertTrue(running.isCancelled());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void getCriticalPath_DependencyChain_ShouldReturnChainEndingLast() throws Exception {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("database", Collections.emptyList());
+        dependencies.put("config", Collections.emptyList());
+        dependencies.put("backend", Arrays.asList("database", "config"));
+        dependencies.put("frontend", Collections.singletonList("backend"));
+        dependencies.put("monitoring", Collections.emptyList());
+        DependencyScheduler scheduler = new DependencyScheduler(TaskListener.NULL, dependencies, 4, false);
+
+        scheduler.run(name -> {
+            if (name.equals("database")) {
+                return sleepAsync(100);
+            } else if (!name.equals("monitoring") && !name.equals("config")) {
+                return sleepAsync(20);
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+
+        assertEquals(Arrays.asList("database", "backend", "frontend"), scheduler.getCriticalPath());
+    }
+
+    @Test
+    public void getCriticalPath_NotRun_ShouldBeEmpty() {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("app", Collections.emptyList());
+
+        DependencyScheduler scheduler = new DependencyScheduler(TaskListener.NULL, dependencies, 1, false);
+
+        assertTrue(scheduler.getCriticalPath().isEmpty());
+    }
+}
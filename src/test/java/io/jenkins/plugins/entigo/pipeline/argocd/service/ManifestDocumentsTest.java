@@ -0,0 +1,126 @@
+package io.jenkins.plugins.entigo.pipeline.argocd.service;
+
+import hudson.AbortException;
+import hudson.FilePath;
+import io.jenkins.plugins.entigo.pipeline.rest.RequestBodyException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ManifestDocumentsTest {
+
+    private static final long SIZE_LIMIT = 1024L * 1024L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void iterator_LeadingAndTrailingSeparators_ShouldSkipEmptyDocuments() throws Exception {
+        writeFile("app.yaml", "---\nkind: Service\n---\n");
+
+        assertEquals(Collections.singletonList("kind: Service\n"), readAll("*.yaml"));
+    }
+
+    @Test
+    public void iterator_CommentOnlyDocument_ShouldBeSkipped() throws Exception {
+        writeFile("app.yaml", "# Source: chart/templates/service.yaml\nkind: Service\n--- # second\n" +
+                "# Source: chart/templates/empty.yaml\n\n---\nkind: Deployment\n");
+
+        assertEquals(Arrays.asList("# Source: chart/templates/service.yaml\nkind: Service\n", "kind: Deployment\n"),
+                readAll("*.yaml"));
+    }
+
+    @Test
+    public void iterator_SeparatorInsideLine_ShouldNotSplit() throws Exception {
+        writeFile("app.yaml", "data:\n  script: |\n    echo ---\n  other: '--- value'\n");
+
+        assertEquals(1, readAll("*.yaml").size());
+    }
+
+    @Test
+    public void iterator_InlineContentAfterSeparator_ShouldStartNewDocument() throws Exception {
+        writeFile("app.yaml", "kind: ConfigMap\n--- !!map\nkind: Service\n---   \nkind: Deployment\n");
+
+        assertEquals(Arrays.asList("kind: ConfigMap\n", "--- !!map\nkind: Service\n", "kind: Deployment\n"),
+                readAll("*.yaml"));
+    }
+
+    @Test
+    public void iterator_DocumentEndMarker_ShouldEndDocument() throws Exception {
+        writeFile("app.yaml", "kind: Service\n...\n---\nkind: Deployment\n... # end\n");
+
+        assertEquals(Arrays.asList("kind: Service\n", "kind: Deployment\n"), readAll("*.yaml"));
+    }
+
+    @Test
+    public void iterator_UnreadableFile_ShouldThrowRequestBodyException() throws Exception {
+        writeFile("app.yaml", "kind: Service\n");
+        ManifestDocuments documents = find("*.yaml");
+        Files.delete(new File(folder.getRoot(), "app.yaml").toPath());
+
+        assertThrows(RequestBodyException.class, () -> toList(documents));
+    }
+
+    @Test
+    public void iterator_SeveralFiles_ShouldReturnDocumentsInPathOrder() throws Exception {
+        writeFile("b.yaml", "kind: B1\n---\nkind: B2\n");
+        writeFile("nested/c.yaml", "kind: C\n");
+        writeFile("a.yaml", "kind: A\n");
+
+        assertEquals(Arrays.asList("kind: A\n", "kind: B1\n", "kind: B2\n", "kind: C\n"), readAll("**/*.yaml"));
+    }
+
+    @Test
+    public void iterator_IteratedTwice_ShouldReadFilesAgain() throws Exception {
+        writeFile("app.yaml", "kind: Service\n---\nkind: Deployment\n");
+        ManifestDocuments documents = find("*.yaml");
+
+        assertEquals(toList(documents), toList(documents));
+    }
+
+    @Test
+    public void find_NoFiles_ShouldAbort() throws Exception {
+        AbortException exception = assertThrows(AbortException.class, () -> find("*.yaml"));
+
+        assertEquals("Couldn't find any manifest files with pattern: *.yaml", exception.getMessage());
+    }
+
+    @Test
+    public void find_OverSizeLimit_ShouldAbort() throws Exception {
+        writeFile("app.yaml", "kind: Service\n");
+
+        assertThrows(AbortException.class, () -> ManifestDocuments.find(new FilePath(folder.getRoot()), "*.yaml",
+                5));
+    }
+
+    private void writeFile(String path, String content) throws IOException {
+        File file = new File(folder.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ManifestDocuments find(String pattern) throws Exception {
+        return ManifestDocuments.find(new FilePath(folder.getRoot()), pattern, SIZE_LIMIT);
+    }
+
+    private List<String> readAll(String pattern) throws Exception {
+        return toList(find(pattern));
+    }
+
+    private static List<String> toList(Iterable<String> documents) {
+        List<String> list = new ArrayList<>();
+        documents.forEach(list::add);
+        return list;
+    }
+}
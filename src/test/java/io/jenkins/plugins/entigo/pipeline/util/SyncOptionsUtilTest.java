@@ -0,0 +1,50 @@
+package io.jenkins.plugins.entigo.pipeline.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SyncOptionsUtilTest {
+
+    @Test
+    public void parseSyncOptions_Blank_ShouldReturnEmptyList() {
+        assertTrue(SyncOptionsUtil.parseSyncOptions(null).isEmpty());
+        assertTrue(SyncOptionsUtil.parseSyncOptions("  ").isEmpty());
+    }
+
+    @Test
+    public void parseSyncOptions_CommasAndNewLines_ShouldTrimOptions() {
+        assertEquals(Arrays.asList("ApplyOutOfSyncOnly=true", "ServerSideApply=true", "PruneLast=true"),
+                SyncOptionsUtil.parseSyncOptions(" ApplyOutOfSyncOnly=true ,ServerSideApply=true\n\nPruneLast=true"));
+    }
+
+    @Test
+    public void parseSyncOptions_ValueWithSeparator_ShouldKeepValue() {
+        assertEquals(Arrays.asList("Replace=a=b"), SyncOptionsUtil.parseSyncOptions("Replace=a=b"));
+    }
+
+    @Test
+    public void parseSyncOptions_MissingSeparator_ShouldFailWithFormat() {
+        assertInvalid("ApplyOutOfSyncOnly", "ApplyOutOfSyncOnly");
+    }
+
+    @Test
+    public void parseSyncOptions_MissingKey_ShouldFailWithFormat() {
+        assertInvalid("=true", "=true");
+    }
+
+    @Test
+    public void parseSyncOptions_MissingValue_ShouldFailWithFormat() {
+        assertInvalid("PruneLast=true, ServerSideApply= ", "ServerSideApply=");
+    }
+
+    private static void assertInvalid(String syncOptions, String invalidOption) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> SyncOptionsUtil.parseSyncOptions(syncOptions));
+
+        assertEquals(String.format("Invalid sync option %s, expected KEY=VALUE, e.g. ApplyOutOfSyncOnly=true",
+                invalidOption), exception.getMessage());
+    }
+}
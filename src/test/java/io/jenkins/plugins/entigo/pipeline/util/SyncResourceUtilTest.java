@@ -0,0 +1,104 @@
+package io.jenkins.plugins.entigo.pipeline.util;
+
+import io.jenkins.plugins.entigo.pipeline.argocd.model.ResourceStatus;
+import io.jenkins.plugins.entigo.pipeline.argocd.model.SyncResource;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SyncResourceUtilTest {
+
+    @Test
+    public void parseResources_Blank_ShouldReturnEmptyList() {
+        assertTrue(SyncResourceUtil.parseResources(null).isEmpty());
+        assertTrue(SyncResourceUtil.parseResources(" \n ").isEmpty());
+    }
+
+    @Test
+    public void parseResources_WithAndWithoutNamespace_ShouldParseAll() {
+        List<SyncResource> resources = SyncResourceUtil.parseResources(
+                "apps:Deployment:payments/api,\n :ConfigMap:settings ,, batch:Job:migrate");
+
+        assertEquals(3, resources.size());
+        assertResource(resources.get(0), "apps", "Deployment", "payments", "api");
+        assertResource(resources.get(1), "", "ConfigMap", null, "settings");
+        assertResource(resources.get(2), "batch", "Job", null, "migrate");
+    }
+
+    @Test
+    public void parseResources_MissingPart_ShouldFailWithFormat() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> SyncResourceUtil.parseResources("apps:Deployment"));
+
+        assertEquals("Invalid resource apps:Deployment, expected GROUP:KIND:NAME or GROUP:KIND:NAMESPACE/NAME",
+                exception.getMessage());
+    }
+
+    @Test
+    public void parseResources_TooManyParts_ShouldFailWithFormat() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> SyncResourceUtil.parseResources("apps:Deployment:payments:api"));
+
+        assertEquals("Invalid resource apps:Deployment:payments:api, expected GROUP:KIND:NAME or " +
+                "GROUP:KIND:NAMESPACE/NAME", exception.getMessage());
+    }
+
+    @Test
+    public void parseResources_BlankKind_ShouldFailWithFormat() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> SyncResourceUtil.parseResources("apps: :api"));
+
+        assertEquals("Invalid resource apps: :api, expected GROUP:KIND:NAME or GROUP:KIND:NAMESPACE/NAME",
+                exception.getMessage());
+    }
+
+    @Test
+    public void parseResources_NamespaceWithoutName_ShouldFail() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> SyncResourceUtil.parseResources("apps:Deployment:payments/"));
+
+        assertEquals("Resource name is missing: apps:Deployment:payments/", exception.getMessage());
+    }
+
+    @Test
+    public void matches_SelectedWithoutNamespace_ShouldMatchAnyNamespace() {
+        SyncResource selected = SyncResourceUtil.parseResources("apps:Deployment:api").get(0);
+
+        assertTrue(SyncResourceUtil.matches(selected, createStatus("apps", "Deployment", "payments", "api")));
+        assertFalse(SyncResourceUtil.matches(selected, createStatus("apps", "StatefulSet", "payments", "api")));
+    }
+
+    @Test
+    public void matches_SelectedWithNamespace_ShouldCompareNamespace() {
+        SyncResource selected = SyncResourceUtil.parseResources("apps:Deployment:payments/api").get(0);
+
+        assertTrue(SyncResourceUtil.matches(selected, createStatus("apps", "Deployment", "payments", "api")));
+        assertFalse(SyncResourceUtil.matches(selected, createStatus("apps", "Deployment", "orders", "api")));
+    }
+
+    @Test
+    public void matches_CoreGroup_ShouldMatchMissingGroup() {
+        SyncResource selected = SyncResourceUtil.parseResources(":ConfigMap:settings").get(0);
+
+        assertTrue(SyncResourceUtil.matches(selected, createStatus(null, "ConfigMap", "payments", "settings")));
+    }
+
+    private static void assertResource(SyncResource resource, String group, String kind, String namespace,
+                                       String name) {
+        assertEquals(group, resource.getGroup());
+        assertEquals(kind, resource.getKind());
+        assertEquals(namespace, resource.getNamespace());
+        assertEquals(name, resource.getName());
+    }
+
+    private static ResourceStatus createStatus(String group, String kind, String namespace, String name) {
+        ResourceStatus status = new ResourceStatus();
+        status.setGroup(group);
+        status.setKind(kind);
+        status.setNamespace(namespace);
+        status.setName(name);
+        return status;
+    }
+}